@@ -0,0 +1,68 @@
+package com.kombaos.benchmark;
+
+import com.kombaos.inventory.material.domain.Material;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures so runs on different machines and commits measure the same data set.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 20260212L;
+
+    private static final String[] FIBERS = {"Fique", "Lana", "Algodón", "Seda", "Alpaca", "Yute", "Lino", "Cáñamo"};
+    private static final String[] SUPPLIERS = {"Cooperativa Andina", "Hilos del Sur", "Tejidos Wayuu", "Fibras Nariño"};
+    private static final String[] ORIGINS = {"Boyacá", "Nariño", "La Guajira", "Santander", "Cauca"};
+    private static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final Random random;
+
+    BenchmarkData() {
+        this.random = new Random(SEED);
+    }
+
+    static String materialId(int index) {
+        return "mat-%08d".formatted(index);
+    }
+
+    Material material(int index) {
+        return new Material(
+                materialId(index),
+                materialName(),
+                "kg",
+                SUPPLIERS[random.nextInt(SUPPLIERS.length)],
+                ORIGINS[random.nextInt(ORIGINS.length)],
+                random.nextBoolean(),
+                (long) random.nextInt(100_000),
+                "COP",
+                EPOCH.plusSeconds(index)
+        );
+    }
+
+    List<Material> materials(int count) {
+        List<Material> materials = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            materials.add(material(i));
+        }
+        return materials;
+    }
+
+    String materialName() {
+        return FIBERS[random.nextInt(FIBERS.length)] + " " + (char) ('A' + random.nextInt(26)) + random.nextInt(1000);
+    }
+
+    String supplier() {
+        return SUPPLIERS[random.nextInt(SUPPLIERS.length)];
+    }
+
+    String origin() {
+        return ORIGINS[random.nextInt(ORIGINS.length)];
+    }
+
+    int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+}
@@ -0,0 +1,98 @@
+package com.kombaos.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.persistence.file.FileJsonListStore;
+import com.kombaos.persistence.file.FileStoreFormat;
+import com.kombaos.persistence.file.FileStoreOptions;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class FileJsonListStoreBenchmark {
+
+    private static final TypeReference<List<Material>> TYPE = new TypeReference<>() {
+    };
+
+    @Param({"1000", "100000", "1000000"})
+    public int records;
+
+    @Param({"true", "false"})
+    public boolean journaled;
+
+    @Param({"JSON", "SMILE"})
+    public FileStoreFormat format;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private BenchmarkData data;
+    private Path dir;
+    private Path file;
+    private FileJsonListStore<Material> store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new BenchmarkData();
+        dir = Files.createTempDirectory("kombaos-jmh");
+        file = dir.resolve("materials.json");
+        open().writeAll(data.materials(records));
+        store = open();
+        store.readAll();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private FileJsonListStore<Material> open() {
+        return new FileJsonListStore<>(objectMapper, file, TYPE, Material::id, new FileStoreOptions(journaled, 500, format));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 5)
+    public List<Material> coldLoad() {
+        return open().readAll();
+    }
+
+    @Benchmark
+    public Optional<Material> get() {
+        return store.get(BenchmarkData.materialId(data.nextInt(records)));
+    }
+
+    @Benchmark
+    public void put() {
+        store.put(data.material(data.nextInt(records)));
+    }
+}
@@ -0,0 +1,139 @@
+package com.kombaos.benchmark;
+
+import com.kombaos.KombaosBackendApplication;
+import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.service.MaterialService;
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.service.InventoryMovementService;
+import com.kombaos.inventory.threshold.service.InventoryAlertService;
+import com.kombaos.inventory.threshold.service.InventoryAlertService.LowStockAlert;
+import com.kombaos.inventory.threshold.service.MaterialStockThresholdService;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Service-level benchmarks against a real application context, once with the file stores
+ * ({@code local}) and once with the JPA stores on an in-memory H2 database ({@code cloud}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InventoryBenchmark {
+
+    @Param({"local", "cloud"})
+    public String environment;
+
+    @Param({"1000"})
+    public int materials;
+
+    @Param({"20"})
+    public int movementsPerMaterial;
+
+    private BenchmarkData data;
+    private Path dir;
+    private ConfigurableApplicationContext context;
+    private MaterialService materialService;
+    private InventoryMovementService movementService;
+    private InventoryAlertService alertService;
+    private List<String> materialIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new BenchmarkData();
+        dir = Files.createTempDirectory("kombaos-jmh");
+        context = new SpringApplicationBuilder(KombaosBackendApplication.class)
+                // Command-line arguments, unlike default properties, win over application.properties.
+                .run(
+                        "--kombaos.environment=" + environment,
+                        "--server.port=0",
+                        "--kombaos.local-storage-dir=" + dir,
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN"
+                );
+        materialService = context.getBean(MaterialService.class);
+        movementService = context.getBean(InventoryMovementService.class);
+        alertService = context.getBean(InventoryAlertService.class);
+        seed(context.getBean(MaterialStockThresholdService.class));
+    }
+
+    private void seed(MaterialStockThresholdService thresholdService) {
+        materialIds = new ArrayList<>(materials);
+        for (int i = 0; i < materials; i++) {
+            Material m = data.material(i);
+            Material created = materialService.create(m.name(), m.unit(), m.supplier(), m.origin(), m.certified(), m.costCents(), m.currency());
+            materialIds.add(created.id());
+            thresholdService.upsert(created.id(), new BigDecimal(data.nextInt(200)));
+        }
+
+        List<NewInventoryMovement> batch = new ArrayList<>();
+        for (String materialId : materialIds) {
+            batch.add(new NewInventoryMovement(materialId, InventoryMovementType.IN, new BigDecimal(100 + data.nextInt(100)), "Compra"));
+            for (int i = 1; i < movementsPerMaterial; i++) {
+                batch.add(new NewInventoryMovement(materialId, InventoryMovementType.OUT, BigDecimal.ONE, "Consumo"));
+            }
+            if (batch.size() >= InventoryMovementService.MAX_BATCH_SIZE - movementsPerMaterial) {
+                movementService.createAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            movementService.createAll(batch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        org.springframework.util.FileSystemUtils.deleteRecursively(dir);
+    }
+
+    private String randomMaterialId() {
+        return materialIds.get(data.nextInt(materialIds.size()));
+    }
+
+    @Benchmark
+    public BigDecimal getStock() {
+        return movementService.getStock(randomMaterialId());
+    }
+
+    @Benchmark
+    public InventoryMovement create() {
+        return movementService.create(randomMaterialId(), InventoryMovementType.IN, BigDecimal.ONE, "Ajuste");
+    }
+
+    @Benchmark
+    public List<LowStockAlert> lowStockAlerts() {
+        return alertService.lowStockAlerts();
+    }
+
+    @Benchmark
+    public List<Material> listMaterialsFiltered() {
+        return materialService.list(data.materialName().substring(0, 3), data.supplier(), data.origin(), null);
+    }
+}
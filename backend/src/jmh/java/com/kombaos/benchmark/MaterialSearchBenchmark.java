@@ -0,0 +1,87 @@
+package com.kombaos.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kombaos.config.KombaosProperties;
+import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.domain.MaterialFilter;
+import com.kombaos.inventory.material.repository.file.FileMaterialStore;
+import com.kombaos.persistence.file.FileJsonListStore;
+import com.kombaos.persistence.file.FileStoreOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MaterialSearchBenchmark {
+
+    @Param({"100000"})
+    public int materials;
+
+    private BenchmarkData data;
+    private Path dir;
+    private FileMaterialStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new BenchmarkData();
+        dir = Files.createTempDirectory("kombaos-jmh");
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        new FileJsonListStore<>(
+                objectMapper,
+                dir.resolve("materials.json"),
+                new TypeReference<List<Material>>() {
+                },
+                Material::id,
+                new FileStoreOptions(false, 500)
+        ).writeAll(data.materials(materials));
+
+        KombaosProperties properties = new KombaosProperties();
+        properties.setLocalStorageDir(dir.toString());
+        store = new FileMaterialStore(objectMapper, properties, new SimpleMeterRegistry());
+        store.list();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public List<Material> nameOnly() {
+        return store.search(MaterialFilter.of(data.materialName().substring(0, 6), null, null, null));
+    }
+
+    @Benchmark
+    public List<Material> supplierOriginCertified() {
+        return store.search(MaterialFilter.of(null, data.supplier(), data.origin(), true));
+    }
+
+    @Benchmark
+    public List<Material> allFilters() {
+        return store.search(MaterialFilter.of(data.materialName().substring(0, 4), data.supplier(), data.origin(), true));
+    }
+}
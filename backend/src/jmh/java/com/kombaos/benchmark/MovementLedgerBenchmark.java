@@ -0,0 +1,127 @@
+package com.kombaos.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kombaos.config.KombaosProperties;
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.repository.InventoryMovementStore;
+import com.kombaos.inventory.movement.repository.file.FileInventoryMovementStore;
+import com.kombaos.inventory.movement.repository.file.MappedInventoryMovementStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Ledger scans on the two local movement engines: the JSON list store ({@code json}) and the
+ * memory-mapped record file ({@code mapped}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MovementLedgerBenchmark {
+
+    @Param({"json", "mapped"})
+    public String engine;
+
+    @Param({"1000"})
+    public int materials;
+
+    @Param({"100000"})
+    public int movements;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private BenchmarkData data;
+    private Path dir;
+    private KombaosProperties properties;
+    private InventoryMovementStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new BenchmarkData();
+        dir = Files.createTempDirectory("kombaos-jmh");
+        properties = new KombaosProperties();
+        properties.setEnvironment("local");
+        properties.setLocalStorageDir(dir.toString());
+        properties.setLocalLedgerEngine(engine);
+        store = open();
+        List<NewInventoryMovement> batch = new ArrayList<>();
+        for (int i = 0; i < movements; i++) {
+            InventoryMovementType type = i < materials ? InventoryMovementType.IN : InventoryMovementType.OUT;
+            batch.add(new NewInventoryMovement(BenchmarkData.materialId(i % materials), type, new BigDecimal(i < materials ? 1_000_000 : 1), "Consumo"));
+            if (batch.size() == 1000) {
+                store.createAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            store.createAll(batch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (store instanceof MappedInventoryMovementStore mapped) {
+            mapped.close();
+        }
+        FileSystemUtils.deleteRecursively(dir.toFile());
+    }
+
+    private InventoryMovementStore open() {
+        return engine.equals("mapped")
+                ? new MappedInventoryMovementStore(objectMapper, properties, new SimpleMeterRegistry())
+                : new FileInventoryMovementStore(objectMapper, properties, new SimpleMeterRegistry());
+    }
+
+    private String randomMaterialId() {
+        return BenchmarkData.materialId(data.nextInt(materials));
+    }
+
+    @Benchmark
+    public BigDecimal balance() {
+        return store.getBalance(randomMaterialId());
+    }
+
+    @Benchmark
+    public BigDecimal sumHistory() {
+        return store.sumMovements(randomMaterialId(), Optional.empty(), Instant.now());
+    }
+
+    @Benchmark
+    public List<InventoryMovement> listMaterial() {
+        return store.list(Optional.of(randomMaterialId()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<MovementRollup> aggregateAll() {
+        return store.aggregate(Optional.empty(), Instant.EPOCH, Instant.now());
+    }
+}
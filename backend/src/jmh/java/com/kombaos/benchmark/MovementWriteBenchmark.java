@@ -0,0 +1,142 @@
+package com.kombaos.benchmark;
+
+import com.kombaos.KombaosBackendApplication;
+import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.service.MaterialService;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.service.InventoryMovementService;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Write load over HTTP in cloud mode: each invocation writes {@code movements} movements, as that many
+ * simultaneous {@code POST /api/inventory/movements} or, with {@code batchSize > 1}, as simultaneous
+ * batches to the batch endpoint, and waits for all of them. Compare {@code profile=default} against {@code profile=production} to see
+ * the pool and JDBC tuning. Runs on an in-memory H2 unless {@code DATABASE_URL} is set, and the
+ * PostgreSQL driver settings only show against PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MovementWriteBenchmark {
+
+    @Param({"default", "production"})
+    public String profile;
+
+    @Param({"400"})
+    public int movements;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    @Param({"100"})
+    public int materials;
+
+    private BenchmarkData data;
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private List<String> materialIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new BenchmarkData();
+        List<String> args = new ArrayList<>(List.of(
+                "--kombaos.environment=cloud",
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (2 * movements),
+                "--logging.level.root=WARN"
+        ));
+        if (System.getenv("DATABASE_URL") == null) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        }
+        context = new SpringApplicationBuilder(KombaosBackendApplication.class)
+                .profiles(profile.equals("default") ? new String[0] : new String[] {profile})
+                .run(args.toArray(String[]::new));
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+
+        MaterialService materialService = context.getBean(MaterialService.class);
+        InventoryMovementService movementService = context.getBean(InventoryMovementService.class);
+        materialIds = new ArrayList<>(materials);
+        for (int i = 0; i < materials; i++) {
+            Material m = data.material(i);
+            String id = materialService.create(m.name(), m.unit(), m.supplier(), m.origin(), m.certified(), m.costCents(), m.currency()).id();
+            movementService.create(id, InventoryMovementType.IN, new BigDecimal(1_000_000_000), "Compra");
+            materialIds.add(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        clientExecutor.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int writeWave() {
+        int requests = movements / batchSize;
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + (batchSize == 1 ? "/api/inventory/movements" : "/api/inventory/movements:batch")))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(batchSize == 1 ? movement() : batch()))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int failed = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() >= 400) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " of " + requests + " requests failed");
+        }
+        return requests * batchSize;
+    }
+
+    private String batch() {
+        StringBuilder body = new StringBuilder("{\"movements\":[");
+        for (int i = 0; i < batchSize; i++) {
+            body.append(i == 0 ? "" : ",").append(movement());
+        }
+        return body.append("]}").toString();
+    }
+
+    private String movement() {
+        String materialId = materialIds.get(data.nextInt(materialIds.size()));
+        return "{\"materialId\":\"" + materialId + "\",\"type\":\"OUT\",\"quantity\":1,\"reason\":\"Consumo\"}";
+    }
+}
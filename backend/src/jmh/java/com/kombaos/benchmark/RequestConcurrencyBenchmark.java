@@ -0,0 +1,136 @@
+package com.kombaos.benchmark;
+
+import com.kombaos.KombaosBackendApplication;
+import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.service.MaterialService;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.service.InventoryMovementService;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test over HTTP: each invocation fires a wave of {@code concurrency} simultaneous requests
+ * (stock reads and movement writes) and waits for all of them. Compare {@code virtualThreads=false}
+ * (Tomcat's platform-thread pool) against {@code true} to see how many requests the container keeps in
+ * flight while they wait on store locks and JDBC connections.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RequestConcurrencyBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"local", "cloud"})
+    public String environment;
+
+    @Param({"1000"})
+    public int concurrency;
+
+    @Param({"100"})
+    public int materials;
+
+    private BenchmarkData data;
+    private Path dir;
+    private ConfigurableApplicationContext context;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private String baseUrl;
+    private List<String> materialIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        data = new BenchmarkData();
+        dir = Files.createTempDirectory("kombaos-jmh");
+        context = new SpringApplicationBuilder(KombaosBackendApplication.class)
+                // Command-line arguments, unlike default properties, win over application.properties.
+                .run(
+                        "--kombaos.environment=" + environment,
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.port=0",
+                        "--server.tomcat.max-connections=" + (2 * concurrency),
+                        "--kombaos.local-storage-dir=" + dir,
+                        "--spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN"
+                );
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build();
+
+        MaterialService materialService = context.getBean(MaterialService.class);
+        InventoryMovementService movementService = context.getBean(InventoryMovementService.class);
+        materialIds = new ArrayList<>(materials);
+        for (int i = 0; i < materials; i++) {
+            Material m = data.material(i);
+            String id = materialService.create(m.name(), m.unit(), m.supplier(), m.origin(), m.certified(), m.costCents(), m.currency()).id();
+            movementService.create(id, InventoryMovementType.IN, new BigDecimal(1_000_000), "Compra");
+            materialIds.add(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        clientExecutor.close();
+        context.close();
+        org.springframework.util.FileSystemUtils.deleteRecursively(dir);
+    }
+
+    @Benchmark
+    public int mixedWave() {
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            String materialId = materialIds.get(data.nextInt(materialIds.size()));
+            HttpRequest request = i % 4 == 0
+                    ? HttpRequest.newBuilder(URI.create(baseUrl + "/api/inventory/movements"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    "{\"materialId\":\"" + materialId + "\",\"type\":\"OUT\",\"quantity\":1,\"reason\":\"Consumo\"}"))
+                            .build()
+                    : HttpRequest.newBuilder(URI.create(baseUrl + "/api/materials/" + materialId + "/stock")).GET().build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        int failed = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() >= 400) {
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " of " + concurrency + " requests failed");
+        }
+        return concurrency;
+    }
+}
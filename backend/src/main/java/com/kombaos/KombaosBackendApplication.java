@@ -5,6 +5,7 @@ import java.net.URI;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
@@ -14,8 +15,13 @@ import org.springframework.core.env.Environment;
 @ConfigurationPropertiesScan
 public class KombaosBackendApplication {
 
+	// Enough for the steps of one boot; read them at /actuator/startup.
+	private static final int STARTUP_STEPS = 4096;
+
 	public static void main(String[] args) {
-		SpringApplication.run(KombaosBackendApplication.class, args);
+		SpringApplication application = new SpringApplication(KombaosBackendApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+		application.run(args);
 	}
 
 	@Bean
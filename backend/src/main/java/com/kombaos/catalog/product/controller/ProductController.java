@@ -4,10 +4,19 @@ import com.kombaos.catalog.product.domain.Product;
 import com.kombaos.catalog.product.dto.ProductCreateRequest;
 import com.kombaos.catalog.product.dto.ProductResponse;
 import com.kombaos.catalog.product.dto.ProductUpdateRequest;
+import com.kombaos.catalog.product.service.ProductResponseCache;
 import com.kombaos.catalog.product.service.ProductService;
+import com.kombaos.persistence.PageResult;
+import com.kombaos.web.controller.ETags;
+import com.kombaos.web.controller.FieldProjection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.function.Supplier;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -15,27 +24,67 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String ETAG_STORE = "products";
+
     private final ProductService service;
+    private final ProductResponseCache cache;
+    private final ObjectMapper objectMapper;
 
-    public ProductController(ProductService service) {
+    public ProductController(ProductService service, ProductResponseCache cache, ObjectMapper objectMapper) {
         this.service = service;
+        this.cache = cache;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public List<ProductResponse> list() {
-        return service.list().stream().map(ProductController::toResponse).toList();
+    public ResponseEntity<?> list(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest request
+    ) {
+        // Read the version before the data: a concurrent write can then only make the tag older than the body.
+        long version = service.version();
+        String etag = ETags.of(ETAG_STORE, version);
+        if (ETags.notModified(request, etag)) {
+            return ETags.notModifiedResponse(etag);
+        }
+        if (page == null && size == null && sort == null && fields == null) {
+            byte[] body = cache.get(ProductResponseCache.CATALOG, version, () -> json(
+                    () -> service.list().stream().map(ProductController::toResponse).toList()
+            ));
+            return ETags.ok(etag).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+        if (page == null && size == null && sort == null) {
+            List<ProductResponse> all = service.list().stream().map(ProductController::toResponse).toList();
+            return ETags.ok(etag).body(FieldProjection.select(all, fields, ProductResponse.class));
+        }
+        PageResult<ProductResponse> result = service.page(page, size, sort).map(ProductController::toResponse);
+        return ETags.ok(etag)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.total()))
+                .body(FieldProjection.select(result.items(), fields, ProductResponse.class));
     }
 
     @GetMapping("/{id}")
-    public ProductResponse getById(@PathVariable String id) {
-        return toResponse(service.getById(id));
+    public ResponseEntity<byte[]> getById(@PathVariable String id, WebRequest request) {
+        long version = service.version();
+        String etag = ETags.of(ETAG_STORE, version);
+        if (ETags.notModified(request, etag)) {
+            return ETags.notModifiedResponse(etag);
+        }
+        byte[] body = cache.get(ProductResponseCache.product(id), version, () -> json(() -> toResponse(service.getById(id))));
+        return ETags.ok(etag).contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @PostMapping
@@ -68,6 +117,14 @@ public class ProductController {
         service.delete(id);
     }
 
+    private byte[] json(Supplier<?> response) {
+        try {
+            return objectMapper.writeValueAsBytes(response.get());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize product response", e);
+        }
+    }
+
     private static ProductResponse toResponse(Product product) {
         return new ProductResponse(
                 product.id(),
@@ -1,12 +1,16 @@
 package com.kombaos.catalog.product.repository;
 
 import com.kombaos.catalog.product.domain.Product;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProductStore {
     List<Product> list();
 
+    PageResult<Product> page(PageQuery query);
+
     Optional<Product> getById(String id);
 
     Product create(String name, String description, long priceCents, String currency, boolean active);
@@ -14,4 +18,6 @@ public interface ProductStore {
     Product update(String id, String name, String description, long priceCents, String currency, boolean active);
 
     void delete(String id);
+
+    long version();
 }
@@ -5,12 +5,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kombaos.catalog.product.domain.Product;
 import com.kombaos.catalog.product.repository.ProductStore;
 import com.kombaos.config.KombaosProperties;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
 import com.kombaos.persistence.file.FileJsonListStore;
+import com.kombaos.persistence.file.FileStoreMetrics;
+import com.kombaos.persistence.file.FileStoreOptions;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,13 +29,22 @@ public class FileProductStore implements ProductStore {
     private static final TypeReference<List<Product>> PRODUCTS_TYPE = new TypeReference<>() {
     };
 
+    private static final Map<String, Comparator<Product>> SORTS = Map.of(
+            "createdAt", Comparator.comparing(Product::createdAt).thenComparing(Product::id),
+            "name", Comparator.comparing(Product::name).thenComparing(Product::id),
+            "priceCents", Comparator.comparingLong(Product::priceCents).thenComparing(Product::id)
+    );
+
     private final FileJsonListStore<Product> store;
 
-    public FileProductStore(ObjectMapper objectMapper, KombaosProperties properties) {
+    public FileProductStore(ObjectMapper objectMapper, KombaosProperties properties, MeterRegistry meterRegistry) {
         this.store = new FileJsonListStore<>(
                 objectMapper,
                 Path.of(properties.getLocalStorageDir()).resolve("products.json"),
-                PRODUCTS_TYPE
+                PRODUCTS_TYPE,
+                Product::id,
+                FileStoreOptions.from(properties),
+                new FileStoreMetrics(meterRegistry, "products")
         );
     }
 
@@ -43,53 +57,42 @@ public class FileProductStore implements ProductStore {
         });
     }
 
+    @Override
+    public PageResult<Product> page(PageQuery query) {
+        return query.apply(store.readAll(), SORTS);
+    }
+
     @Override
     public Optional<Product> getById(String id) {
-        return store.withLock(() -> store.readAll().stream().filter(p -> p.id().equals(id)).findFirst());
+        return store.get(id);
     }
 
     @Override
     public Product create(String name, String description, long priceCents, String currency, boolean active) {
-        return store.withLock(() -> {
-            List<Product> all = store.readAll();
-            Product created = new Product(UUID.randomUUID().toString(), name, description, priceCents, currency, active, Instant.now());
-            all.add(created);
-            store.writeAll(all);
-            return created;
-        });
+        Product created = new Product(UUID.randomUUID().toString(), name, description, priceCents, currency, active, Instant.now());
+        store.put(created);
+        return created;
     }
 
     @Override
     public Product update(String id, String name, String description, long priceCents, String currency, boolean active) {
         return store.withLock(() -> {
-            List<Product> all = store.readAll();
-            List<Product> updated = new ArrayList<>(all.size());
-            Product result = null;
-            for (Product p : all) {
-                if (p.id().equals(id)) {
-                    result = new Product(p.id(), name, description, priceCents, currency, active, p.createdAt());
-                    updated.add(result);
-                } else {
-                    updated.add(p);
-                }
-            }
-            if (result == null) {
-                throw new NoSuchElementException("Product not found: " + id);
-            }
-            store.writeAll(updated);
+            Product existing = store.get(id).orElseThrow(() -> new NoSuchElementException("Product not found: " + id));
+            Product result = new Product(existing.id(), name, description, priceCents, currency, active, existing.createdAt());
+            store.put(result);
             return result;
         });
     }
 
+    @Override
+    public long version() {
+        return store.version();
+    }
+
     @Override
     public void delete(String id) {
-        store.withLock(() -> {
-            List<Product> all = store.readAll();
-            List<Product> remaining = all.stream().filter(p -> !p.id().equals(id)).toList();
-            if (remaining.size() == all.size()) {
-                throw new NoSuchElementException("Product not found: " + id);
-            }
-            store.writeAll(remaining);
-        });
+        if (!store.remove(id)) {
+            throw new NoSuchElementException("Product not found: " + id);
+        }
     }
 }
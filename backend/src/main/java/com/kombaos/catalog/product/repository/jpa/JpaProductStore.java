@@ -2,39 +2,61 @@ package com.kombaos.catalog.product.repository.jpa;
 
 import com.kombaos.catalog.product.domain.Product;
 import com.kombaos.catalog.product.repository.ProductStore;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
+import com.kombaos.persistence.jpa.StoreVersionJpaRepository;
 import java.time.Instant;
-import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @ConditionalOnProperty(name = "kombaos.environment", havingValue = "cloud", matchIfMissing = true)
 public class JpaProductStore implements ProductStore {
 
+    private static final String VERSION = "products";
+
     private final ProductJpaRepository repository;
+    private final StoreVersionJpaRepository versions;
 
-    public JpaProductStore(ProductJpaRepository repository) {
+    public JpaProductStore(ProductJpaRepository repository, StoreVersionJpaRepository versions) {
         this.repository = repository;
+        this.versions = versions;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Product> list() {
-        return repository.findAll().stream()
-                .map(this::toModel)
-                .sorted(Comparator.comparing(Product::createdAt))
-                .toList();
+        return repository.findAll(Sort.by("createdAt", "id")).stream().map(this::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResult<Product> page(PageQuery query) {
+        Sort sort = Sort.by(query.descending() ? Sort.Direction.DESC : Sort.Direction.ASC, query.sort(), "id");
+        if (!query.paged()) {
+            List<Product> items = repository.findAll(sort).stream().map(this::toModel).toList();
+            return new PageResult<>(items, items.size());
+        }
+        Page<ProductEntity> page = repository.findAll(PageRequest.of(query.page(), query.size(), sort));
+        return new PageResult<>(page.getContent().stream().map(this::toModel).toList(), page.getTotalElements());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Product> getById(String id) {
         return repository.findById(id).map(this::toModel);
     }
 
     @Override
+    @Transactional
     public Product create(String name, String description, long priceCents, String currency, boolean active) {
         ProductEntity saved = repository.save(new ProductEntity(
                 UUID.randomUUID().toString(),
@@ -45,10 +67,12 @@ public class JpaProductStore implements ProductStore {
                 active,
                 Instant.now()
         ));
+        versions.bump(VERSION);
         return toModel(saved);
     }
 
     @Override
+    @Transactional
     public Product update(String id, String name, String description, long priceCents, String currency, boolean active) {
         ProductEntity entity = repository.findById(id).orElseThrow(() -> new NoSuchElementException("Product not found: " + id));
         entity.setName(name);
@@ -57,15 +81,24 @@ public class JpaProductStore implements ProductStore {
         entity.setCurrency(currency);
         entity.setActive(active);
         ProductEntity saved = repository.save(entity);
+        versions.bump(VERSION);
         return toModel(saved);
     }
 
     @Override
+    @Transactional
     public void delete(String id) {
         if (!repository.existsById(id)) {
             throw new NoSuchElementException("Product not found: " + id);
         }
         repository.deleteById(id);
+        versions.bump(VERSION);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long version() {
+        return versions.current(VERSION);
     }
 
     private Product toModel(ProductEntity entity) {
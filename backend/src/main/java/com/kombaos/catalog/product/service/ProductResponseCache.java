@@ -0,0 +1,107 @@
+package com.kombaos.catalog.product.service;
+
+import com.kombaos.config.KombaosProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * LRU of serialized product responses, bounded by total bytes. Entries remember the store version
+ * they were built from and are only served while it is current, so a write that reaches the store
+ * without going through {@link ProductService} (another instance, an edited file) is never masked.
+ */
+@Component
+public class ProductResponseCache {
+
+    public static final String CATALOG = "catalog";
+
+    private record Entry(long version, byte[] body) {
+    }
+
+    private final long maxBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public ProductResponseCache(KombaosProperties properties, MeterRegistry meterRegistry) {
+        this.maxBytes = properties.getProductCacheMaxBytes();
+        this.hits = Counter.builder("kombaos.product.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("kombaos.product.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("kombaos.product.cache.evictions").register(meterRegistry);
+        Gauge.builder("kombaos.product.cache.size", this, ProductResponseCache::bytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public static String product(String id) {
+        return "product:" + id;
+    }
+
+    public byte[] get(String key, long version, Supplier<byte[]> loader) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version() == version) {
+                hits.increment();
+                return entry.body();
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+        byte[] body = loader.get();
+        put(key, new Entry(version, body));
+        return body;
+    }
+
+    public void evict(String... keys) {
+        lock.lock();
+        try {
+            for (String key : keys) {
+                Entry removed = entries.remove(key);
+                if (removed != null) {
+                    bytes -= removed.body().length;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        if (entry.body().length > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            Entry previous = entries.put(key, entry);
+            bytes += entry.body().length - (previous == null ? 0 : previous.body().length);
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                bytes -= eldest.next().getValue().body().length;
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.kombaos.catalog.product.service;
 
 import com.kombaos.catalog.product.domain.Product;
 import com.kombaos.catalog.product.repository.ProductStore;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
@@ -9,29 +11,46 @@ import org.springframework.stereotype.Service;
 @Service
 public class ProductService {
 
+    public static final List<String> SORTABLE = List.of("createdAt", "name", "priceCents");
+
     private final ProductStore store;
+    private final ProductResponseCache cache;
 
-    public ProductService(ProductStore store) {
+    public ProductService(ProductStore store, ProductResponseCache cache) {
         this.store = store;
+        this.cache = cache;
     }
 
     public List<Product> list() {
         return store.list();
     }
 
+    public PageResult<Product> page(Integer page, Integer size, String sort) {
+        return store.page(PageQuery.of(page, size, sort, SORTABLE, "createdAt"));
+    }
+
     public Product getById(String id) {
         return store.getById(id).orElseThrow(() -> new java.util.NoSuchElementException("Product not found: " + id));
     }
 
     public Product create(String name, String description, long priceCents, String currency, boolean active) {
-        return store.create(name, description, priceCents, currency, active);
+        Product created = store.create(name, description, priceCents, currency, active);
+        cache.evict(ProductResponseCache.CATALOG);
+        return created;
     }
 
     public Product update(String id, String name, String description, long priceCents, String currency, boolean active) {
-        return store.update(id, name, description, priceCents, currency, active);
+        Product updated = store.update(id, name, description, priceCents, currency, active);
+        cache.evict(ProductResponseCache.CATALOG, ProductResponseCache.product(id));
+        return updated;
     }
 
     public void delete(String id) {
         store.delete(id);
+        cache.evict(ProductResponseCache.CATALOG, ProductResponseCache.product(id));
+    }
+
+    public long version() {
+        return store.version();
     }
 }
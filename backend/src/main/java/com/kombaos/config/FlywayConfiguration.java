@@ -0,0 +1,27 @@
+package com.kombaos.config;
+
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hands migrations the zone that timestamp columns were written in before connections ran in UTC:
+ * {@code kombaos.legacy-time-zone}, or the JVM zone, which the JDBC drivers used for the session.
+ */
+@Configuration(proxyBeanMethods = false)
+public class FlywayConfiguration {
+
+    @Bean
+    FlywayConfigurationCustomizer legacyTimeZonePlaceholder(KombaosProperties properties) {
+        String legacy = properties.getLegacyTimeZone();
+        ZoneId zone = legacy == null || legacy.isBlank() ? ZoneId.systemDefault() : ZoneId.of(legacy.trim());
+        return configuration -> {
+            Map<String, String> placeholders = new HashMap<>(configuration.getPlaceholders());
+            placeholders.put("legacy_time_zone", zone.getId());
+            configuration.placeholders(placeholders);
+        };
+    }
+}
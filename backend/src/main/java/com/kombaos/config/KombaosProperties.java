@@ -7,6 +7,13 @@ public class KombaosProperties {
 
     private String environment;
     private String localStorageDir;
+    private boolean localStorageJournal = true;
+    private int localStorageCompactionThreshold = 500;
+    private String localStorageFormat = "json";
+    private String localLedgerEngine = "json";
+    private long productCacheMaxBytes = 16 * 1024 * 1024;
+    private String legacyTimeZone;
+    private boolean ledgerMetricsPerMaterial;
 
     public String getEnvironment() {
         return environment;
@@ -23,4 +30,60 @@ public class KombaosProperties {
     public void setLocalStorageDir(String localStorageDir) {
         this.localStorageDir = localStorageDir;
     }
+
+    public boolean isLocalStorageJournal() {
+        return localStorageJournal;
+    }
+
+    public void setLocalStorageJournal(boolean localStorageJournal) {
+        this.localStorageJournal = localStorageJournal;
+    }
+
+    public int getLocalStorageCompactionThreshold() {
+        return localStorageCompactionThreshold;
+    }
+
+    public void setLocalStorageCompactionThreshold(int localStorageCompactionThreshold) {
+        this.localStorageCompactionThreshold = localStorageCompactionThreshold;
+    }
+
+    public String getLocalStorageFormat() {
+        return localStorageFormat;
+    }
+
+    public void setLocalStorageFormat(String localStorageFormat) {
+        this.localStorageFormat = localStorageFormat;
+    }
+
+    public String getLocalLedgerEngine() {
+        return localLedgerEngine;
+    }
+
+    public void setLocalLedgerEngine(String localLedgerEngine) {
+        this.localLedgerEngine = localLedgerEngine;
+    }
+
+    public long getProductCacheMaxBytes() {
+        return productCacheMaxBytes;
+    }
+
+    public void setProductCacheMaxBytes(long productCacheMaxBytes) {
+        this.productCacheMaxBytes = productCacheMaxBytes;
+    }
+
+    public String getLegacyTimeZone() {
+        return legacyTimeZone;
+    }
+
+    public void setLegacyTimeZone(String legacyTimeZone) {
+        this.legacyTimeZone = legacyTimeZone;
+    }
+
+    public boolean isLedgerMetricsPerMaterial() {
+        return ledgerMetricsPerMaterial;
+    }
+
+    public void setLedgerMetricsPerMaterial(boolean ledgerMetricsPerMaterial) {
+        this.ledgerMetricsPerMaterial = ledgerMetricsPerMaterial;
+    }
 }
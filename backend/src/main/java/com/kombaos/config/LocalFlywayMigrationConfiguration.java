@@ -1,20 +0,0 @@
-package com.kombaos.config;
-
-import org.flywaydb.core.Flyway;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration(proxyBeanMethods = false)
-@ConditionalOnProperty(prefix = "kombaos", name = "environment", havingValue = "local")
-public class LocalFlywayMigrationConfiguration {
-
-    @Bean
-    FlywayMigrationStrategy localFlywayMigrationStrategy() {
-        return (Flyway flyway) -> {
-            flyway.repair();
-            flyway.migrate();
-        };
-    }
-}
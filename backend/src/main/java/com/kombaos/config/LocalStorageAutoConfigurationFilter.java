@@ -0,0 +1,44 @@
+package com.kombaos.config;
+
+import java.util.Set;
+import org.springframework.boot.autoconfigure.AutoConfigurationImportFilter;
+import org.springframework.boot.autoconfigure.AutoConfigurationMetadata;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+/**
+ * Leaves out the DataSource, JPA and Flyway auto-configurations in the local environment, where every
+ * store is file-backed: no pool, no Hibernate bootstrap and no migration run on each desktop start.
+ * Import filters see the environment after test and command-line properties are applied.
+ */
+public class LocalStorageAutoConfigurationFilter implements AutoConfigurationImportFilter, EnvironmentAware {
+
+    static final Set<String> DATABASE_AUTO_CONFIGURATIONS = Set.of(
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration",
+            "org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration",
+            "org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration",
+            "org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration",
+            "org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration",
+            "org.springframework.boot.autoconfigure.sql.init.SqlInitializationAutoConfiguration"
+    );
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean[] match(String[] autoConfigurationClasses, AutoConfigurationMetadata autoConfigurationMetadata) {
+        boolean local = "local".equalsIgnoreCase(environment.getProperty("kombaos.environment"));
+        boolean[] matches = new boolean[autoConfigurationClasses.length];
+        for (int i = 0; i < autoConfigurationClasses.length; i++) {
+            // Candidates already dropped by an earlier filter come through as null.
+            String candidate = autoConfigurationClasses[i];
+            matches[i] = !local || candidate == null || !DATABASE_AUTO_CONFIGURATIONS.contains(candidate);
+        }
+        return matches;
+    }
+}
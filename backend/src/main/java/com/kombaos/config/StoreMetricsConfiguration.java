@@ -0,0 +1,69 @@
+package com.kombaos.config;
+
+import com.kombaos.catalog.product.repository.ProductStore;
+import com.kombaos.inventory.material.repository.MaterialStore;
+import com.kombaos.inventory.movement.repository.InventoryMovementStore;
+import com.kombaos.inventory.threshold.repository.MaterialStockThresholdStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Records a {@code kombaos.store} timer, tagged by store interface and method, around every store call.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StoreMetricsConfiguration {
+
+    private static final List<Class<?>> STORES = List.of(
+            MaterialStore.class,
+            ProductStore.class,
+            InventoryMovementStore.class,
+            MaterialStockThresholdStore.class
+    );
+
+    @Bean
+    static BeanPostProcessor storeMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                for (Class<?> store : STORES) {
+                    if (store.isInstance(bean)) {
+                        ProxyFactory proxy = new ProxyFactory();
+                        proxy.setTarget(bean);
+                        proxy.addInterface(store);
+                        proxy.addAdvice(timed(store.getSimpleName(), meterRegistry));
+                        return proxy.getProxy(store.getClassLoader());
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor timed(String store, ObjectProvider<MeterRegistry> meterRegistry) {
+        return invocation -> {
+            MeterRegistry registry = meterRegistry.getObject();
+            Timer.Sample sample = Timer.start(registry);
+            String exception = "none";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(Timer.builder("kombaos.store")
+                        .description("Store method latency")
+                        .tag("store", store)
+                        .tag("method", invocation.getMethod().getName())
+                        .tag("exception", exception)
+                        .register(registry));
+            }
+        };
+    }
+}
@@ -5,9 +5,13 @@ import com.kombaos.inventory.material.dto.MaterialCreateRequest;
 import com.kombaos.inventory.material.dto.MaterialResponse;
 import com.kombaos.inventory.material.dto.MaterialUpdateRequest;
 import com.kombaos.inventory.material.service.MaterialService;
+import com.kombaos.persistence.PageResult;
+import com.kombaos.web.controller.ETags;
+import com.kombaos.web.controller.FieldProjection;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,11 +22,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/materials")
 public class MaterialController {
 
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String ETAG_STORE = "materials";
+
     private final MaterialService service;
 
     public MaterialController(MaterialService service) {
@@ -30,18 +38,40 @@ public class MaterialController {
     }
 
     @GetMapping
-    public List<MaterialResponse> list(
+    public ResponseEntity<List<?>> list(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) String supplier,
             @RequestParam(required = false) String origin,
-            @RequestParam(required = false) Boolean certified
+            @RequestParam(required = false) Boolean certified,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest request
     ) {
-        return service.list(q, supplier, origin, certified).stream().map(MaterialController::toResponse).toList();
+        // Read the version before the data: a concurrent write can then only make the tag older than the body.
+        String etag = ETags.of(ETAG_STORE, service.version());
+        if (ETags.notModified(request, etag)) {
+            return ETags.notModifiedResponse(etag);
+        }
+        if (page == null && size == null && sort == null) {
+            List<MaterialResponse> all = service.list(q, supplier, origin, certified).stream().map(MaterialController::toResponse).toList();
+            return ETags.ok(etag).body(FieldProjection.select(all, fields, MaterialResponse.class));
+        }
+        PageResult<MaterialResponse> result = service.page(q, supplier, origin, certified, page, size, sort)
+                .map(MaterialController::toResponse);
+        return ETags.ok(etag)
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.total()))
+                .body(FieldProjection.select(result.items(), fields, MaterialResponse.class));
     }
 
     @GetMapping("/{id}")
-    public MaterialResponse getById(@PathVariable String id) {
-        return toResponse(service.getById(id));
+    public ResponseEntity<MaterialResponse> getById(@PathVariable String id, WebRequest request) {
+        String etag = ETags.of(ETAG_STORE, service.version());
+        if (ETags.notModified(request, etag)) {
+            return ETags.notModifiedResponse(etag);
+        }
+        return ETags.ok(etag).body(toResponse(service.getById(id)));
     }
 
     @PostMapping
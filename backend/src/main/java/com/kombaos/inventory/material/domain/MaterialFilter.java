@@ -0,0 +1,46 @@
+package com.kombaos.inventory.material.domain;
+
+import java.util.Locale;
+
+/**
+ * Material search criteria. Text values are trimmed and case-folded once here, so stores can
+ * compare them against pre-folded columns or index keys. Stored values are only case-folded, see
+ * {@link #key}, so every store matches them like {@code lower(column)} in SQL.
+ */
+public record MaterialFilter(
+        String query,
+        String supplier,
+        String origin,
+        Boolean certified
+) {
+
+    public static final MaterialFilter ALL = new MaterialFilter(null, null, null, null);
+
+    public static MaterialFilter of(String query, String supplier, String origin, Boolean certified) {
+        return new MaterialFilter(fold(query), fold(supplier), fold(origin), certified);
+    }
+
+    public static String fold(String value) {
+        if (value == null) return null;
+        String v = value.trim();
+        return v.isEmpty() ? null : v.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folds a stored supplier, origin or name the way {@code lower(column)} does: case only, no trim.
+     */
+    public static String key(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    public boolean isEmpty() {
+        return query == null && supplier == null && origin == null && certified == null;
+    }
+
+    public boolean matches(Material material) {
+        return (query == null || (material.name() != null && key(material.name()).contains(query)))
+                && (supplier == null || supplier.equals(key(material.supplier())))
+                && (origin == null || origin.equals(key(material.origin())))
+                && (certified == null || certified == material.certified());
+    }
+}
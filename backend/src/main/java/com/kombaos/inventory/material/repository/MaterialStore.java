@@ -1,17 +1,29 @@
 package com.kombaos.inventory.material.repository;
 
 import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.domain.MaterialFilter;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface MaterialStore {
     List<Material> list();
 
+    List<Material> search(MaterialFilter filter);
+
+    PageResult<Material> page(MaterialFilter filter, PageQuery query);
+
     Optional<Material> getById(String id);
 
+    List<Material> getByIds(Collection<String> ids);
+
     Material create(String name, String unit, String supplier, String origin, boolean certified, Long costCents, String currency);
 
     Material update(String id, String name, String unit, String supplier, String origin, boolean certified, Long costCents, String currency);
 
     void delete(String id);
+
+    long version();
 }
@@ -3,14 +3,21 @@ package com.kombaos.inventory.material.repository.file;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kombaos.config.KombaosProperties;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
 import com.kombaos.persistence.file.FileJsonListStore;
+import com.kombaos.persistence.file.FileStoreMetrics;
+import com.kombaos.persistence.file.FileStoreOptions;
 import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.domain.MaterialFilter;
 import com.kombaos.inventory.material.repository.MaterialStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
@@ -24,14 +31,24 @@ public class FileMaterialStore implements MaterialStore {
     private static final TypeReference<List<Material>> MATERIALS_TYPE = new TypeReference<>() {
     };
 
+    private static final Map<String, Comparator<Material>> SORTS = Map.of(
+            "createdAt", Comparator.comparing(Material::createdAt).thenComparing(Material::id),
+            "name", Comparator.comparing(Material::name).thenComparing(Material::id)
+    );
+
     private final FileJsonListStore<Material> store;
+    private final MaterialSearchIndex searchIndex = new MaterialSearchIndex();
 
-    public FileMaterialStore(ObjectMapper objectMapper, KombaosProperties properties) {
+    public FileMaterialStore(ObjectMapper objectMapper, KombaosProperties properties, MeterRegistry meterRegistry) {
         this.store = new FileJsonListStore<>(
                 objectMapper,
                 Path.of(properties.getLocalStorageDir()).resolve("materials.json"),
-                MATERIALS_TYPE
+                MATERIALS_TYPE,
+                Material::id,
+                FileStoreOptions.from(properties),
+                new FileStoreMetrics(meterRegistry, "materials")
         );
+        this.store.addIndex(searchIndex);
     }
 
     @Override
@@ -43,53 +60,52 @@ public class FileMaterialStore implements MaterialStore {
         });
     }
 
+    @Override
+    public List<Material> search(MaterialFilter filter) {
+        return store.read(() -> searchIndex.search(filter));
+    }
+
+    @Override
+    public PageResult<Material> page(MaterialFilter filter, PageQuery query) {
+        return query.apply(filter.isEmpty() ? store.readAll() : search(filter), SORTS);
+    }
+
     @Override
     public Optional<Material> getById(String id) {
-        return store.withLock(() -> store.readAll().stream().filter(m -> m.id().equals(id)).findFirst());
+        return store.get(id);
+    }
+
+    @Override
+    public List<Material> getByIds(Collection<String> ids) {
+        return store.getAll(ids);
     }
 
     @Override
     public Material create(String name, String unit, String supplier, String origin, boolean certified, Long costCents, String currency) {
-        return store.withLock(() -> {
-            List<Material> all = store.readAll();
-            Material created = new Material(UUID.randomUUID().toString(), name, unit, supplier, origin, certified, costCents, currency, Instant.now());
-            all.add(created);
-            store.writeAll(all);
-            return created;
-        });
+        Material created = new Material(UUID.randomUUID().toString(), name, unit, supplier, origin, certified, costCents, currency, Instant.now());
+        store.put(created);
+        return created;
     }
 
     @Override
     public Material update(String id, String name, String unit, String supplier, String origin, boolean certified, Long costCents, String currency) {
         return store.withLock(() -> {
-            List<Material> all = store.readAll();
-            List<Material> updated = new ArrayList<>(all.size());
-            Material result = null;
-            for (Material m : all) {
-                if (m.id().equals(id)) {
-                    result = new Material(m.id(), name, unit, supplier, origin, certified, costCents, currency, m.createdAt());
-                    updated.add(result);
-                } else {
-                    updated.add(m);
-                }
-            }
-            if (result == null) {
-                throw new NoSuchElementException("Material not found: " + id);
-            }
-            store.writeAll(updated);
+            Material existing = store.get(id).orElseThrow(() -> new NoSuchElementException("Material not found: " + id));
+            Material result = new Material(existing.id(), name, unit, supplier, origin, certified, costCents, currency, existing.createdAt());
+            store.put(result);
             return result;
         });
     }
 
+    @Override
+    public long version() {
+        return store.version();
+    }
+
     @Override
     public void delete(String id) {
-        store.withLock(() -> {
-            List<Material> all = store.readAll();
-            List<Material> remaining = all.stream().filter(m -> !m.id().equals(id)).toList();
-            if (remaining.size() == all.size()) {
-                throw new NoSuchElementException("Material not found: " + id);
-            }
-            store.writeAll(remaining);
-        });
+        if (!store.remove(id)) {
+            throw new NoSuchElementException("Material not found: " + id);
+        }
     }
 }
@@ -0,0 +1,260 @@
+package com.kombaos.inventory.material.repository.file;
+
+import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.domain.MaterialFilter;
+import com.kombaos.persistence.file.FileStoreIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Inverted indexes over materials, keyed by an ordinal assigned in creation order so matches come
+ * out already sorted. Names are indexed by every 1- to 3-character gram of their case-folded form
+ * in sorted int postings; supplier, origin and certified are low-cardinality and use bitsets.
+ * Longer name queries scan the postings of their rarest trigram and confirm the substring.
+ * Deleted materials leave their ordinal empty; once empty slots outnumber live ones the index is
+ * rebuilt over the live materials, so it stays proportional to the store under churn.
+ */
+class MaterialSearchIndex implements FileStoreIndex<Material> {
+
+    private static final int GRAM = 3;
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private final List<Material> materials = new ArrayList<>();
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Postings> nameGrams = new HashMap<>();
+    private final Map<String, BitSet> suppliers = new HashMap<>();
+    private final Map<String, BitSet> origins = new HashMap<>();
+    private final Map<Boolean, BitSet> certified = new HashMap<>();
+    private boolean ordered = true;
+    private int dead;
+
+    List<Material> search(MaterialFilter filter) {
+        BitSet exact = null;
+        if (filter.supplier() != null) {
+            exact = intersect(exact, suppliers.get(filter.supplier()));
+        }
+        if (filter.origin() != null) {
+            exact = intersect(exact, origins.get(filter.origin()));
+        }
+        if (filter.certified() != null) {
+            exact = intersect(exact, certified.get(filter.certified()));
+        }
+
+        // The rarest gram bounds the candidates; the folded-name check confirms the full substring.
+        Postings rarest = null;
+        if (filter.query() != null) {
+            for (String gram : grams(filter.query(), false)) {
+                Postings postings = nameGrams.get(gram);
+                if (postings == null) {
+                    return List.of();
+                }
+                if (rarest == null || postings.size() < rarest.size()) {
+                    rarest = postings;
+                }
+            }
+        }
+
+        List<Material> result = new ArrayList<>();
+        if (rarest != null && (exact == null || rarest.size() < exact.cardinality())) {
+            for (int i = 0; i < rarest.size(); i++) {
+                int ordinal = rarest.get(i);
+                if ((exact == null || exact.get(ordinal)) && matchesName(ordinal, filter.query())) {
+                    result.add(materials.get(ordinal));
+                }
+            }
+        } else {
+            BitSet candidates = exact == null ? live : exact;
+            for (int ordinal = candidates.nextSetBit(0); ordinal >= 0; ordinal = candidates.nextSetBit(ordinal + 1)) {
+                if (filter.query() == null || matchesName(ordinal, filter.query())) {
+                    result.add(materials.get(ordinal));
+                }
+            }
+        }
+        if (!ordered) {
+            result.sort(Comparator.comparing(Material::createdAt));
+        }
+        return result;
+    }
+
+    @Override
+    public void rebuild(Collection<Material> items) {
+        materials.clear();
+        names.clear();
+        ordinals.clear();
+        live.clear();
+        nameGrams.clear();
+        suppliers.clear();
+        origins.clear();
+        certified.clear();
+        ordered = true;
+        dead = 0;
+        items.stream().sorted(Comparator.comparing(Material::createdAt)).forEach(m -> add(m, materials.size()));
+    }
+
+    @Override
+    public void onPut(Material previous, Material current) {
+        Integer ordinal = previous == null ? null : ordinals.get(previous.id());
+        if (ordinal != null) {
+            remove(previous);
+            add(current, ordinal);
+            return;
+        }
+        int last = live.length() - 1;
+        if (last >= 0 && current.createdAt().isBefore(materials.get(last).createdAt())) {
+            ordered = false;
+        }
+        add(current, materials.size());
+    }
+
+    @Override
+    public void onRemove(Material removed) {
+        if (ordinals.containsKey(removed.id())) {
+            remove(removed);
+            dead++;
+        }
+        if (dead >= COMPACT_MIN_DEAD && dead > live.cardinality()) {
+            rebuild(materials.stream().filter(Objects::nonNull).toList());
+        }
+    }
+
+    int slots() {
+        return materials.size();
+    }
+
+    private boolean matchesName(int ordinal, String query) {
+        return names.get(ordinal).contains(query);
+    }
+
+    private void add(Material material, int ordinal) {
+        String name = fold(material.name());
+        if (ordinal == materials.size()) {
+            materials.add(material);
+            names.add(name);
+        } else {
+            materials.set(ordinal, material);
+            names.set(ordinal, name);
+        }
+        ordinals.put(material.id(), ordinal);
+        live.set(ordinal);
+        grams(name, true).forEach(gram -> nameGrams.computeIfAbsent(gram, g -> new Postings()).add(ordinal));
+        post(suppliers, MaterialFilter.key(material.supplier()), ordinal);
+        post(origins, MaterialFilter.key(material.origin()), ordinal);
+        post(certified, material.certified(), ordinal);
+    }
+
+    private void remove(Material material) {
+        Integer ordinal = ordinals.remove(material.id());
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        for (String gram : grams(names.get(ordinal), true)) {
+            Postings postings = nameGrams.get(gram);
+            if (postings != null && postings.remove(ordinal) && postings.size() == 0) {
+                nameGrams.remove(gram);
+            }
+        }
+        unpost(suppliers, MaterialFilter.key(material.supplier()), ordinal);
+        unpost(origins, MaterialFilter.key(material.origin()), ordinal);
+        unpost(certified, material.certified(), ordinal);
+        materials.set(ordinal, null);
+        names.set(ordinal, null);
+    }
+
+    private static BitSet intersect(BitSet current, BitSet postings) {
+        BitSet result = postings == null ? new BitSet() : (BitSet) postings.clone();
+        if (current != null) {
+            result.and(current);
+        }
+        return result;
+    }
+
+    /**
+     * All grams of length 1..3 when indexing; for a query, the query itself when it is a gram, else
+     * its trigrams, whose postings are the tightest.
+     */
+    private static Set<String> grams(String text, boolean indexing) {
+        Set<String> grams = new HashSet<>();
+        if (!indexing && text.length() <= GRAM) {
+            grams.add(text);
+            return grams;
+        }
+        for (int length = indexing ? 1 : GRAM; length <= GRAM; length++) {
+            for (int i = 0; i + length <= text.length(); i++) {
+                grams.add(text.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static String fold(String name) {
+        return name == null ? "" : MaterialFilter.key(name);
+    }
+
+    private static <K> void post(Map<K, BitSet> postings, K key, int ordinal) {
+        if (key != null) {
+            postings.computeIfAbsent(key, k -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private static <K> void unpost(Map<K, BitSet> postings, K key, int ordinal) {
+        BitSet ordinalsForKey = key == null ? null : postings.get(key);
+        if (ordinalsForKey != null) {
+            ordinalsForKey.clear(ordinal);
+            if (ordinalsForKey.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Sorted ordinals. New materials get the highest ordinal, so adds are appends in the common case.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return ordinals[index];
+        }
+
+        void add(int ordinal) {
+            int index = size == 0 || ordinals[size - 1] < ordinal ? -(size + 1) : Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index >= 0) {
+                return;
+            }
+            int at = -(index + 1);
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            System.arraycopy(ordinals, at, ordinals, at + 1, size - at);
+            ordinals[at] = ordinal;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int index = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, index + 1, ordinals, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+}
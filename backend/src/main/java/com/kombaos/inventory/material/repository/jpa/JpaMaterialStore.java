@@ -1,40 +1,89 @@
 package com.kombaos.inventory.material.repository.jpa;
 
 import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.domain.MaterialFilter;
 import com.kombaos.inventory.material.repository.MaterialStore;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
+import com.kombaos.persistence.jpa.IdChunks;
+import com.kombaos.persistence.jpa.StoreVersionJpaRepository;
 import java.time.Instant;
-import java.util.Comparator;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @ConditionalOnProperty(name = "kombaos.environment", havingValue = "cloud", matchIfMissing = true)
 public class JpaMaterialStore implements MaterialStore {
 
+    private static final Sort BY_CREATED_AT = Sort.by("createdAt", "id");
+
+    private static final String VERSION = "materials";
+
     private final MaterialJpaRepository repository;
+    private final StoreVersionJpaRepository versions;
 
-    public JpaMaterialStore(MaterialJpaRepository repository) {
+    public JpaMaterialStore(MaterialJpaRepository repository, StoreVersionJpaRepository versions) {
         this.repository = repository;
+        this.versions = versions;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Material> list() {
-        return repository.findAll().stream()
+        return repository.findAll(BY_CREATED_AT).stream().map(this::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Material> search(MaterialFilter filter) {
+        return repository.findAll(MaterialSpecifications.matching(filter), BY_CREATED_AT).stream()
                 .map(this::toModel)
-                .sorted(Comparator.comparing(Material::createdAt))
                 .toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public PageResult<Material> page(MaterialFilter filter, PageQuery query) {
+        Sort sort = Sort.by(query.descending() ? Sort.Direction.DESC : Sort.Direction.ASC, query.sort(), "id");
+        if (!query.paged()) {
+            List<Material> items = repository.findAll(MaterialSpecifications.matching(filter), sort).stream()
+                    .map(this::toModel)
+                    .toList();
+            return new PageResult<>(items, items.size());
+        }
+        Page<MaterialEntity> page = repository.findAll(
+                MaterialSpecifications.matching(filter),
+                PageRequest.of(query.page(), query.size(), sort)
+        );
+        return new PageResult<>(page.getContent().stream().map(this::toModel).toList(), page.getTotalElements());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<Material> getById(String id) {
         return repository.findById(id).map(this::toModel);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public List<Material> getByIds(Collection<String> ids) {
+        return IdChunks.of(ids).stream()
+                .flatMap(chunk -> repository.findAllById(chunk).stream())
+                .map(this::toModel)
+                .toList();
+    }
+
+    @Override
+    @Transactional
     public Material create(String name, String unit, String supplier, String origin, boolean certified, Long costCents, String currency) {
         MaterialEntity saved = repository.save(new MaterialEntity(
                 UUID.randomUUID().toString(),
@@ -47,10 +96,12 @@ public class JpaMaterialStore implements MaterialStore {
                 currency,
                 Instant.now()
         ));
+        versions.bump(VERSION);
         return toModel(saved);
     }
 
     @Override
+    @Transactional
     public Material update(String id, String name, String unit, String supplier, String origin, boolean certified, Long costCents, String currency) {
         MaterialEntity entity = repository.findById(id).orElseThrow(() -> new NoSuchElementException("Material not found: " + id));
         entity.setName(name);
@@ -61,15 +112,24 @@ public class JpaMaterialStore implements MaterialStore {
         entity.setCostCents(costCents);
         entity.setCurrency(currency);
         MaterialEntity saved = repository.save(entity);
+        versions.bump(VERSION);
         return toModel(saved);
     }
 
     @Override
+    @Transactional
     public void delete(String id) {
         if (!repository.existsById(id)) {
             throw new NoSuchElementException("Material not found: " + id);
         }
         repository.deleteById(id);
+        versions.bump(VERSION);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long version() {
+        return versions.current(VERSION);
     }
 
     private Material toModel(MaterialEntity entity) {
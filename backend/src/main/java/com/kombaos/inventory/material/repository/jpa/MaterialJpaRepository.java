@@ -1,6 +1,7 @@
 package com.kombaos.inventory.material.repository.jpa;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface MaterialJpaRepository extends JpaRepository<MaterialEntity, String> {
+public interface MaterialJpaRepository extends JpaRepository<MaterialEntity, String>, JpaSpecificationExecutor<MaterialEntity> {
 }
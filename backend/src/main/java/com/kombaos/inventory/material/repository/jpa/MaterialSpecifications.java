@@ -0,0 +1,42 @@
+package com.kombaos.inventory.material.repository.jpa;
+
+import com.kombaos.inventory.material.domain.MaterialFilter;
+import jakarta.persistence.criteria.Predicate;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+
+final class MaterialSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private MaterialSpecifications() {
+    }
+
+    /**
+     * Compares {@code lower(column)} with the already folded filter values so Postgres can use the
+     * functional and trigram indexes from db/vendor/postgresql/V7.
+     */
+    static Specification<MaterialEntity> matching(MaterialFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.query() != null) {
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + escapeLike(filter.query()) + "%", ESCAPE));
+            }
+            if (filter.supplier() != null) {
+                predicates.add(cb.equal(cb.lower(root.get("supplier")), filter.supplier()));
+            }
+            if (filter.origin() != null) {
+                predicates.add(cb.equal(cb.lower(root.get("origin")), filter.origin()));
+            }
+            if (filter.certified() != null) {
+                predicates.add(cb.equal(root.get("certified"), filter.certified()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
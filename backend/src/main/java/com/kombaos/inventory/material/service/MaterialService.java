@@ -1,17 +1,21 @@
 package com.kombaos.inventory.material.service;
 
 import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.domain.MaterialFilter;
 import com.kombaos.inventory.material.repository.MaterialStore;
+import com.kombaos.persistence.PageQuery;
+import com.kombaos.persistence.PageResult;
+import java.util.Collection;
 import java.util.List;
 import java.util.NoSuchElementException;
-import java.util.Objects;
-import java.util.Optional;
 
 import org.springframework.stereotype.Service;
 
 @Service
 public class MaterialService {
 
+    public static final List<String> SORTABLE = List.of("createdAt", "name");
+
     private final MaterialStore store;
 
     public MaterialService(MaterialStore store) {
@@ -23,23 +27,22 @@ public class MaterialService {
     }
 
     public List<Material> list(String q, String supplier, String origin, Boolean certified) {
-        String query = normalize(q);
-        String supplierQuery = normalize(supplier);
-        String originQuery = normalize(origin);
-        Optional<Boolean> certifiedFilter = Optional.ofNullable(certified);
+        MaterialFilter filter = MaterialFilter.of(q, supplier, origin, certified);
+        return filter.isEmpty() ? store.list() : store.search(filter);
+    }
 
-        return store.list().stream()
-                .filter(m -> query == null || containsIgnoreCase(m.name(), query))
-                .filter(m -> supplierQuery == null || equalsIgnoreCase(m.supplier(), supplierQuery))
-                .filter(m -> originQuery == null || equalsIgnoreCase(m.origin(), originQuery))
-                .filter(m -> certifiedFilter.map(v -> m.certified() == v).orElse(true))
-                .toList();
+    public PageResult<Material> page(String q, String supplier, String origin, Boolean certified, Integer page, Integer size, String sort) {
+        return store.page(MaterialFilter.of(q, supplier, origin, certified), PageQuery.of(page, size, sort, SORTABLE, "createdAt"));
     }
 
     public Material getById(String id) {
         return store.getById(id).orElseThrow(() -> new NoSuchElementException("Material not found: " + id));
     }
 
+    public List<Material> getByIds(Collection<String> ids) {
+        return store.getByIds(ids);
+    }
+
     public Material create(String name, String unit, String supplier, String origin, boolean certified, Long costCents, String currency) {
         return store.create(name, unit, supplier, origin, certified, costCents, currency);
     }
@@ -52,17 +55,7 @@ public class MaterialService {
         store.delete(id);
     }
 
-    private static String normalize(String value) {
-        if (value == null) return null;
-        String v = value.trim();
-        return v.isEmpty() ? null : v;
-    }
-
-    private static boolean containsIgnoreCase(String value, String query) {
-        return value != null && value.toLowerCase().contains(query.toLowerCase());
-    }
-
-    private static boolean equalsIgnoreCase(String value, String query) {
-        return Objects.equals(value == null ? null : value.toLowerCase(), query.toLowerCase());
+    public long version() {
+        return store.version();
     }
 }
@@ -1,14 +1,27 @@
 package com.kombaos.inventory.movement.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
+import com.kombaos.inventory.movement.domain.InventoryMovementPage;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.dto.InventoryMovementBatchRequest;
 import com.kombaos.inventory.movement.dto.InventoryMovementCreateRequest;
 import com.kombaos.inventory.movement.dto.InventoryMovementResponse;
 import com.kombaos.inventory.movement.dto.MaterialStockResponse;
+import com.kombaos.inventory.movement.dto.StockDriftResponse;
 import com.kombaos.inventory.movement.service.InventoryMovementService;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,19 +31,57 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 public class InventoryMovementController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final String NDJSON = "application/x-ndjson";
+
     private final InventoryMovementService service;
+    private final ObjectMapper objectMapper;
 
-    public InventoryMovementController(InventoryMovementService service) {
+    public InventoryMovementController(InventoryMovementService service, ObjectMapper objectMapper) {
         this.service = service;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/api/inventory/movements")
-    public List<InventoryMovementResponse> list(@RequestParam Optional<String> materialId) {
-        return service.list(materialId).stream().map(InventoryMovementController::toResponse).toList();
+    public ResponseEntity<List<InventoryMovementResponse>> list(
+            @RequestParam Optional<String> materialId,
+            @RequestParam Optional<Integer> limit,
+            @RequestParam Optional<String> after
+    ) {
+        if (limit.isEmpty() && after.isEmpty()) {
+            return ResponseEntity.ok(service.list(materialId).stream().map(InventoryMovementController::toResponse).toList());
+        }
+        InventoryMovementPage page = service.page(
+                materialId,
+                after.map(InventoryMovementCursor::decode),
+                limit.orElse(DEFAULT_PAGE_SIZE)
+        );
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        page.next().ifPresent(next -> response.header(NEXT_CURSOR_HEADER, next.encode()));
+        return response.body(page.items().stream().map(InventoryMovementController::toResponse).toList());
+    }
+
+    @GetMapping(value = "/api/inventory/movements/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam Optional<String> materialId) {
+        ObjectWriter writer = objectMapper.writerFor(InventoryMovementResponse.class);
+        StreamingResponseBody body = out -> service.export(materialId, movement -> {
+            try {
+                out.write(writer.writeValueAsBytes(toResponse(movement)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inventory_movements.ndjson\"")
+                .body(body);
     }
 
     @GetMapping("/api/inventory/movements/{id}")
@@ -44,6 +95,15 @@ public class InventoryMovementController {
         return toResponse(service.create(request.materialId(), request.type(), request.quantity(), request.reason()));
     }
 
+    @PostMapping("/api/inventory/movements:batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    public List<InventoryMovementResponse> createBatch(@Valid @RequestBody InventoryMovementBatchRequest request) {
+        List<NewInventoryMovement> movements = request.movements().stream()
+                .map(m -> new NewInventoryMovement(m.materialId(), m.type(), m.quantity(), m.reason()))
+                .toList();
+        return service.createAll(movements).stream().map(InventoryMovementController::toResponse).toList();
+    }
+
     @DeleteMapping("/api/inventory/movements/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable String id) {
@@ -51,8 +111,24 @@ public class InventoryMovementController {
     }
 
     @GetMapping("/api/materials/{materialId}/stock")
-    public MaterialStockResponse stock(@PathVariable String materialId) {
-        return new MaterialStockResponse(materialId, service.getStock(materialId));
+    public MaterialStockResponse stock(@PathVariable String materialId, @RequestParam Optional<Instant> asOf) {
+        return new MaterialStockResponse(
+                materialId,
+                asOf.map(at -> service.getStockAt(materialId, at)).orElseGet(() -> service.getStock(materialId))
+        );
+    }
+
+    @GetMapping("/api/inventory/stock/check")
+    public List<StockDriftResponse> checkStock(@RequestParam Optional<List<String>> materialId) {
+        return service.checkStock(materialId.orElse(List.of())).stream()
+                .map(d -> new StockDriftResponse(d.materialId(), d.balance(), d.ledger()))
+                .toList();
+    }
+
+    @PostMapping("/api/inventory/stock/rebuild")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void rebuildStock() {
+        service.rebuildStock();
     }
 
     private static InventoryMovementResponse toResponse(InventoryMovement movement) {
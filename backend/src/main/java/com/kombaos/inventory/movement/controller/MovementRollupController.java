@@ -0,0 +1,55 @@
+package com.kombaos.inventory.movement.controller;
+
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.dto.MovementRollupResponse;
+import com.kombaos.inventory.movement.service.MovementRollupService;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/inventory/rollups")
+public class MovementRollupController {
+
+    private final MovementRollupService service;
+
+    public MovementRollupController(MovementRollupService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public List<MovementRollupResponse> buckets(
+            @RequestParam RollupGranularity granularity,
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam Optional<String> materialId
+    ) {
+        return service.buckets(granularity, materialId, from, to).stream().map(MovementRollupController::toResponse).toList();
+    }
+
+    @GetMapping("/totals")
+    public List<MovementRollupResponse> totals(
+            @RequestParam Instant from,
+            @RequestParam Instant to,
+            @RequestParam Optional<String> materialId
+    ) {
+        return service.totals(materialId, from, to).stream().map(MovementRollupController::toResponse).toList();
+    }
+
+    private static MovementRollupResponse toResponse(MovementRollup rollup) {
+        return new MovementRollupResponse(
+                rollup.materialId(),
+                rollup.from(),
+                rollup.to(),
+                rollup.in(),
+                rollup.out(),
+                rollup.adjust(),
+                rollup.movements()
+        );
+    }
+}
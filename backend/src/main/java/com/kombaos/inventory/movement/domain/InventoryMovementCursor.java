@@ -0,0 +1,44 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Comparator;
+
+public record InventoryMovementCursor(
+        Instant createdAt,
+        String id
+) implements Comparable<InventoryMovementCursor> {
+
+    private static final Comparator<InventoryMovementCursor> ORDER = Comparator
+            .comparing(InventoryMovementCursor::createdAt)
+            .thenComparing(InventoryMovementCursor::id);
+
+    public static InventoryMovementCursor of(InventoryMovement movement) {
+        return new InventoryMovementCursor(movement.createdAt(), movement.id());
+    }
+
+    public static InventoryMovementCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new InventoryMovementCursor(Instant.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public int compareTo(InventoryMovementCursor other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,10 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.util.List;
+import java.util.Optional;
+
+public record InventoryMovementPage(
+        List<InventoryMovement> items,
+        Optional<InventoryMovementCursor> next
+) {
+}
@@ -1,7 +1,13 @@
 package com.kombaos.inventory.movement.domain;
 
+import java.math.BigDecimal;
+
 public enum InventoryMovementType {
     IN,
     OUT,
-    ADJUST
+    ADJUST;
+
+    public BigDecimal stockDelta(BigDecimal quantity) {
+        return this == OUT ? quantity.negate() : quantity;
+    }
 }
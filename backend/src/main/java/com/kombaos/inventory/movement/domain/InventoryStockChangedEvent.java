@@ -0,0 +1,11 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.util.Set;
+
+/**
+ * Published after movements of these materials were created or deleted.
+ */
+public record InventoryStockChangedEvent(
+        Set<String> materialIds
+) {
+}
@@ -0,0 +1,52 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Movement totals of one material over {@code [from, to)}. {@code out} is the sum of OUT quantities
+ * (positive); {@code adjust} keeps the sign of each adjustment.
+ */
+public record MovementRollup(
+        String materialId,
+        Instant from,
+        Instant to,
+        BigDecimal in,
+        BigDecimal out,
+        BigDecimal adjust,
+        long movements
+) {
+
+    public static MovementRollup of(InventoryMovement movement, Instant from, Instant to) {
+        BigDecimal quantity = movement.quantity();
+        return new MovementRollup(
+                movement.materialId(),
+                from,
+                to,
+                movement.type() == InventoryMovementType.IN ? quantity : BigDecimal.ZERO,
+                movement.type() == InventoryMovementType.OUT ? quantity : BigDecimal.ZERO,
+                movement.type() == InventoryMovementType.ADJUST ? quantity : BigDecimal.ZERO,
+                1
+        );
+    }
+
+    public MovementRollup plus(MovementRollup other) {
+        return new MovementRollup(
+                materialId,
+                from,
+                to,
+                in.add(other.in),
+                out.add(other.out),
+                adjust.add(other.adjust),
+                movements + other.movements
+        );
+    }
+
+    public MovementRollup negate() {
+        return new MovementRollup(materialId, from, to, in.negate(), out.negate(), adjust.negate(), -movements);
+    }
+
+    public MovementRollup over(Instant from, Instant to) {
+        return new MovementRollup(materialId, from, to, in, out, adjust, movements);
+    }
+}
@@ -0,0 +1,11 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.math.BigDecimal;
+
+public record NewInventoryMovement(
+        String materialId,
+        InventoryMovementType type,
+        BigDecimal quantity,
+        String reason
+) {
+}
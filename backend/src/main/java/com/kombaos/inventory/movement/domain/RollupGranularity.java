@@ -0,0 +1,36 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Calendar buckets for movement rollups, aligned in UTC. Weeks start on Monday as in ISO-8601.
+ */
+public enum RollupGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public Instant floor(Instant instant) {
+        LocalDate date = LocalDate.ofInstant(instant, ZoneOffset.UTC);
+        LocalDate start = switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+        return start.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    public Instant next(Instant bucketStart) {
+        LocalDate date = LocalDate.ofInstant(bucketStart, ZoneOffset.UTC);
+        LocalDate next = switch (this) {
+            case DAY -> date.plusDays(1);
+            case WEEK -> date.plusWeeks(1);
+            case MONTH -> date.plusMonths(1);
+        };
+        return next.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
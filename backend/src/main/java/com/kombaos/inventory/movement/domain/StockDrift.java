@@ -0,0 +1,13 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.math.BigDecimal;
+
+/**
+ * A material whose kept balance no longer matches the sum of its movements.
+ */
+public record StockDrift(
+        String materialId,
+        BigDecimal balance,
+        BigDecimal ledger
+) {
+}
@@ -0,0 +1,14 @@
+package com.kombaos.inventory.movement.domain;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Balance of a material including every movement created at or before {@code asOf}.
+ */
+public record StockSnapshot(
+        String materialId,
+        Instant asOf,
+        BigDecimal balance
+) {
+}
@@ -0,0 +1,11 @@
+package com.kombaos.inventory.movement.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public record InventoryMovementBatchRequest(
+        @NotEmpty @Size(max = 1000) List<@Valid InventoryMovementCreateRequest> movements
+) {
+}
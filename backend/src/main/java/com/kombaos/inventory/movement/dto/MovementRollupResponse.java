@@ -0,0 +1,15 @@
+package com.kombaos.inventory.movement.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record MovementRollupResponse(
+        String materialId,
+        Instant from,
+        Instant to,
+        BigDecimal in,
+        BigDecimal out,
+        BigDecimal adjust,
+        long movements
+) {
+}
@@ -0,0 +1,10 @@
+package com.kombaos.inventory.movement.dto;
+
+import java.math.BigDecimal;
+
+public record StockDriftResponse(
+        String materialId,
+        BigDecimal balance,
+        BigDecimal ledger
+) {
+}
@@ -1,16 +1,57 @@
 package com.kombaos.inventory.movement.repository;
 
 import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
 import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.domain.StockSnapshot;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface InventoryMovementStore {
     List<InventoryMovement> list(Optional<String> materialId);
 
+    List<InventoryMovement> page(Optional<String> materialId, Optional<InventoryMovementCursor> after, int limit);
+
+    void forEach(Optional<String> materialId, Consumer<InventoryMovement> action);
+
     Optional<InventoryMovement> getById(String id);
 
     InventoryMovement create(String materialId, InventoryMovementType type, java.math.BigDecimal quantity, String reason);
 
+    List<InventoryMovement> createAll(List<NewInventoryMovement> movements);
+
     void delete(String id);
+
+    <R> R withMaterialLocks(Collection<String> materialIds, Supplier<R> action);
+
+    java.math.BigDecimal getBalance(String materialId);
+
+    Map<String, java.math.BigDecimal> getBalances(Collection<String> materialIds);
+
+    /**
+     * Stock of each material summed from its movements rather than read from the kept balances.
+     */
+    Map<String, java.math.BigDecimal> ledgerBalances(Collection<String> materialIds);
+
+    void rebuildBalances();
+
+    Optional<StockSnapshot> findSnapshot(String materialId, Instant asOf);
+
+    java.math.BigDecimal sumMovements(String materialId, Optional<Instant> after, Instant upTo);
+
+    int snapshotBalances(Instant asOf);
+
+    List<MovementRollup> rollups(RollupGranularity granularity, Optional<String> materialId, Instant from, Instant to);
+
+    List<MovementRollup> aggregate(Optional<String> materialId, Instant from, Instant to);
+
+    Map<String, Long> countByMaterial();
 }
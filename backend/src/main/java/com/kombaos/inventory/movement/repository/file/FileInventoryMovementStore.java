@@ -4,81 +4,229 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kombaos.config.KombaosProperties;
 import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
 import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.domain.StockSnapshot;
 import com.kombaos.inventory.movement.repository.InventoryMovementStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import com.kombaos.persistence.StripedLocks;
 import com.kombaos.persistence.file.FileJsonListStore;
+import com.kombaos.persistence.file.FileStoreMetrics;
+import com.kombaos.persistence.file.FileStoreOptions;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
 @Repository
 @ConditionalOnProperty(name = "kombaos.environment", havingValue = "local")
+@ConditionalOnProperty(name = "kombaos.local-ledger-engine", havingValue = "json", matchIfMissing = true)
 public class FileInventoryMovementStore implements InventoryMovementStore {
 
     private static final TypeReference<List<InventoryMovement>> TYPE = new TypeReference<>() {
     };
+    private static final TypeReference<List<StockSnapshot>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
 
     private final FileJsonListStore<InventoryMovement> store;
+    private final StockBalanceIndex balances = new StockBalanceIndex();
+    private final MovementTimelineIndex timeline = new MovementTimelineIndex();
+    private final MovementRollupIndex rollups = new MovementRollupIndex();
+    private final StripedLocks materialLocks = new StripedLocks(64);
+    private final FileJsonListStore<StockSnapshot> snapshots;
+    private final StockSnapshotIndex snapshotIndex = new StockSnapshotIndex();
 
-    public FileInventoryMovementStore(ObjectMapper objectMapper, KombaosProperties properties) {
+    public FileInventoryMovementStore(ObjectMapper objectMapper, KombaosProperties properties, MeterRegistry meterRegistry) {
         this.store = new FileJsonListStore<>(
                 objectMapper,
                 Path.of(properties.getLocalStorageDir()).resolve("inventory_movements.json"),
-                TYPE
+                TYPE,
+                InventoryMovement::id,
+                FileStoreOptions.from(properties),
+                new FileStoreMetrics(meterRegistry, "inventory_movements")
+        );
+        this.store.addIndex(balances);
+        this.store.addIndex(timeline);
+        this.store.addIndex(rollups);
+        this.snapshots = new FileJsonListStore<>(
+                objectMapper,
+                Path.of(properties.getLocalStorageDir()).resolve("inventory_stock_snapshots.json"),
+                SNAPSHOT_TYPE,
+                s -> s.materialId() + "|" + s.asOf(),
+                FileStoreOptions.from(properties),
+                new FileStoreMetrics(meterRegistry, "inventory_stock_snapshots")
         );
+        this.snapshots.addIndex(snapshotIndex);
     }
 
     @Override
     public List<InventoryMovement> list(Optional<String> materialId) {
-        return store.withLock(() -> {
-            List<InventoryMovement> all = store.readAll();
-            List<InventoryMovement> filtered = materialId
-                    .map(id -> all.stream().filter(m -> id.equals(m.materialId())).toList())
-                    .orElse(all);
-            return filtered.stream().sorted(Comparator.comparing(InventoryMovement::createdAt)).toList();
-        });
+        return store.read(() -> timeline.list(materialId));
+    }
+
+    @Override
+    public List<InventoryMovement> page(Optional<String> materialId, Optional<InventoryMovementCursor> after, int limit) {
+        return store.read(() -> timeline.page(materialId, after, limit));
+    }
+
+    @Override
+    public void forEach(Optional<String> materialId, Consumer<InventoryMovement> action) {
+        list(materialId).forEach(action);
     }
 
     @Override
     public Optional<InventoryMovement> getById(String id) {
-        return store.withLock(() -> store.readAll().stream().filter(m -> m.id().equals(id)).findFirst());
+        return store.get(id);
     }
 
     @Override
     public InventoryMovement create(String materialId, InventoryMovementType type, BigDecimal quantity, String reason) {
-        return store.withLock(() -> {
-            List<InventoryMovement> all = store.readAll();
-            InventoryMovement created = new InventoryMovement(
-                    UUID.randomUUID().toString(),
-                    materialId,
-                    type,
-                    quantity,
-                    reason,
-                    Instant.now()
-            );
-            all.add(created);
-            store.writeAll(all);
-            return created;
-        });
+        InventoryMovement created = new InventoryMovement(
+                UUID.randomUUID().toString(),
+                materialId,
+                type,
+                quantity,
+                reason,
+                Instant.now()
+        );
+        store.put(created);
+        return created;
+    }
+
+    @Override
+    public List<InventoryMovement> createAll(List<NewInventoryMovement> movements) {
+        Instant now = Instant.now();
+        List<InventoryMovement> created = movements.stream()
+                .map(m -> new InventoryMovement(UUID.randomUUID().toString(), m.materialId(), m.type(), m.quantity(), m.reason(), now))
+                .toList();
+        store.putAll(created);
+        return created;
     }
 
     @Override
     public void delete(String id) {
+        // Under the snapshots lock, like snapshotBalances, so no snapshot is taken between the removal
+        // and the adjustment and then adjusted a second time.
+        snapshots.read(() -> {
+            InventoryMovement movement = store.get(id)
+                    .orElseThrow(() -> new NoSuchElementException("Inventory movement not found: " + id));
+            if (!store.remove(id)) {
+                throw new NoSuchElementException("Inventory movement not found: " + id);
+            }
+            BigDecimal delta = movement.type().stockDelta(movement.quantity()).negate();
+            List<StockSnapshot> adjusted = snapshotIndex.from(movement.materialId(), movement.createdAt()).stream()
+                    .map(s -> new StockSnapshot(s.materialId(), s.asOf(), s.balance().add(delta)))
+                    .toList();
+            if (!adjusted.isEmpty()) {
+                snapshots.putAll(adjusted);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public <R> R withMaterialLocks(Collection<String> materialIds, Supplier<R> action) {
+        return materialLocks.withLocks(materialIds, action);
+    }
+
+    @Override
+    public BigDecimal getBalance(String materialId) {
+        return store.read(() -> balances.balance(materialId));
+    }
+
+    @Override
+    public Map<String, BigDecimal> getBalances(Collection<String> materialIds) {
+        return store.read(() -> {
+            Map<String, BigDecimal> result = new HashMap<>();
+            materialIds.forEach(id -> result.put(id, balances.balance(id)));
+            return result;
+        });
+    }
+
+    @Override
+    public Map<String, BigDecimal> ledgerBalances(Collection<String> materialIds) {
+        return store.read(() -> {
+            Map<String, BigDecimal> result = new HashMap<>();
+            materialIds.forEach(id -> result.put(id, timeline.sum(id)));
+            return result;
+        });
+    }
+
+    @Override
+    public void rebuildBalances() {
         store.withLock(() -> {
             List<InventoryMovement> all = store.readAll();
-            List<InventoryMovement> remaining = all.stream().filter(m -> !m.id().equals(id)).toList();
-            if (remaining.size() == all.size()) {
-                throw new NoSuchElementException("Inventory movement not found: " + id);
+            balances.rebuild(all);
+            rollups.rebuild(all);
+        });
+        snapshots.writeAll(List.of());
+    }
+
+    @Override
+    public Optional<StockSnapshot> findSnapshot(String materialId, Instant asOf) {
+        return snapshots.read(() -> snapshotIndex.latest(materialId, asOf));
+    }
+
+    @Override
+    public BigDecimal sumMovements(String materialId, Optional<Instant> after, Instant upTo) {
+        return store.read(() -> sum(timeline.between(Optional.of(materialId), after, upTo)).getOrDefault(materialId, BigDecimal.ZERO));
+    }
+
+    @Override
+    public int snapshotBalances(Instant asOf) {
+        return snapshots.read(() -> {
+            Optional<Instant> latest = snapshotIndex.latestAsOf();
+            if (latest.isPresent() && !latest.get().isBefore(asOf)) {
+                return 0;
+            }
+            Map<String, BigDecimal> deltas = store.read(() -> sum(timeline.between(Optional.empty(), latest, asOf)));
+            List<StockSnapshot> taken = new ArrayList<>(deltas.size());
+            deltas.forEach((materialId, delta) -> {
+                BigDecimal base = snapshotIndex.latest(materialId, asOf).map(StockSnapshot::balance).orElse(BigDecimal.ZERO);
+                taken.add(new StockSnapshot(materialId, asOf, base.add(delta)));
+            });
+            if (!taken.isEmpty()) {
+                snapshots.putAll(taken);
             }
-            store.writeAll(remaining);
+            return taken.size();
         });
     }
+
+    @Override
+    public List<MovementRollup> rollups(RollupGranularity granularity, Optional<String> materialId, Instant from, Instant to) {
+        return store.read(() -> rollups.rollups(granularity, materialId, from, to));
+    }
+
+    @Override
+    public List<MovementRollup> aggregate(Optional<String> materialId, Instant from, Instant to) {
+        Map<String, MovementRollup> totals = new HashMap<>();
+        store.read(() -> timeline.range(materialId, from, to))
+                .forEach(m -> totals.merge(m.materialId(), MovementRollup.of(m, from, to), MovementRollup::plus));
+        return List.copyOf(totals.values());
+    }
+
+    private static Map<String, BigDecimal> sum(List<InventoryMovement> movements) {
+        Map<String, BigDecimal> deltas = new HashMap<>();
+        movements.forEach(m -> deltas.merge(m.materialId(), m.type().stockDelta(m.quantity()), BigDecimal::add));
+        return deltas;
+    }
+
+    @Override
+    public Map<String, Long> countByMaterial() {
+        return store.read(timeline::countByMaterial);
+    }
 }
@@ -0,0 +1,336 @@
+package com.kombaos.inventory.movement.repository.file;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kombaos.config.KombaosProperties;
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.domain.StockSnapshot;
+import com.kombaos.inventory.movement.repository.InventoryMovementStore;
+import com.kombaos.persistence.StripedLocks;
+import com.kombaos.persistence.file.FileJsonListStore;
+import com.kombaos.persistence.file.FileStoreMetrics;
+import com.kombaos.persistence.file.FileStoreOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Local-mode movement store on a {@link MappedMovementLedger}, picked with
+ * {@code kombaos.local-ledger-engine=mapped}. On first start it imports the movements of the JSON
+ * ledger, which is only read and left in place untouched. The import is written to a staging ledger
+ * and moved into place once complete. Stock snapshots stay in their JSON store.
+ */
+@Repository
+@ConditionalOnProperty(name = "kombaos.environment", havingValue = "local")
+@ConditionalOnProperty(name = "kombaos.local-ledger-engine", havingValue = "mapped")
+public class MappedInventoryMovementStore implements InventoryMovementStore {
+
+    private static final TypeReference<List<InventoryMovement>> TYPE = new TypeReference<>() {
+    };
+    private static final TypeReference<List<StockSnapshot>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
+    private static final String LEDGER = "inventory_ledger";
+    private static final int INITIAL_CAPACITY = 4 * 1024 * 1024;
+    private static final int EXPORT_CHUNK = 1024;
+
+    private final MappedMovementLedger ledger;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MovementRollupIndex rollups = new MovementRollupIndex();
+    private final StripedLocks materialLocks = new StripedLocks(64);
+    private final FileJsonListStore<StockSnapshot> snapshots;
+    private final StockSnapshotIndex snapshotIndex = new StockSnapshotIndex();
+
+    @Autowired
+    public MappedInventoryMovementStore(ObjectMapper objectMapper, KombaosProperties properties, MeterRegistry meterRegistry) {
+        this(objectMapper, properties, meterRegistry, INITIAL_CAPACITY);
+    }
+
+    MappedInventoryMovementStore(ObjectMapper objectMapper, KombaosProperties properties, MeterRegistry meterRegistry, int initialCapacity) {
+        Path dir = Path.of(properties.getLocalStorageDir());
+        this.ledger = openLedger(dir, objectMapper, properties, meterRegistry, initialCapacity);
+        ledger.forEach(movement -> rollups.onPut(null, movement));
+        this.snapshots = new FileJsonListStore<>(
+                objectMapper,
+                dir.resolve("inventory_stock_snapshots.json"),
+                SNAPSHOT_TYPE,
+                s -> s.materialId() + "|" + s.asOf(),
+                FileStoreOptions.from(properties),
+                new FileStoreMetrics(meterRegistry, "inventory_stock_snapshots")
+        );
+        this.snapshots.addIndex(snapshotIndex);
+    }
+
+    private static MappedMovementLedger openLedger(
+            Path dir,
+            ObjectMapper objectMapper,
+            KombaosProperties properties,
+            MeterRegistry meterRegistry,
+            int initialCapacity
+    ) {
+        FileStoreMetrics metrics = new FileStoreMetrics(meterRegistry, "inventory_ledger");
+        MappedMovementLedger ledger = new MappedMovementLedger(dir, LEDGER, initialCapacity, metrics);
+        if (ledger.size() > 0) {
+            return ledger;
+        }
+        List<InventoryMovement> legacy = new FileJsonListStore<>(
+                objectMapper,
+                dir.resolve("inventory_movements.json"),
+                TYPE,
+                InventoryMovement::id,
+                FileStoreOptions.from(properties),
+                new FileStoreMetrics(meterRegistry, "inventory_movements")
+        ).readDetached();
+        if (legacy.isEmpty()) {
+            return ledger;
+        }
+        ledger.close();
+        // Built aside and moved into place records last, so a crash mid-import leaves an empty ledger
+        // and the next start imports again from scratch.
+        Path staging = dir.resolve(LEDGER + ".import");
+        List<Path> staged = MappedMovementLedger.files(staging, LEDGER);
+        List<Path> target = MappedMovementLedger.files(dir, LEDGER);
+        try {
+            for (Path file : staged) {
+                Files.deleteIfExists(file);
+            }
+            try (MappedMovementLedger imported = new MappedMovementLedger(staging, LEDGER, initialCapacity, metrics)) {
+                legacy.stream()
+                        .sorted(Comparator.comparing(InventoryMovementCursor::of))
+                        .forEach(imported::append);
+            }
+            for (int i = 0; i < staged.size(); i++) {
+                Files.move(staged.get(i), target.get(i), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            Files.delete(staging);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to import the movement ledger into: " + dir, e);
+        }
+        return new MappedMovementLedger(dir, LEDGER, initialCapacity, metrics);
+    }
+
+    @PreDestroy
+    public void close() {
+        write(() -> {
+            ledger.close();
+            return null;
+        });
+    }
+
+    @Override
+    public List<InventoryMovement> list(Optional<String> materialId) {
+        return read(() -> ledger.list(materialId));
+    }
+
+    @Override
+    public List<InventoryMovement> page(Optional<String> materialId, Optional<InventoryMovementCursor> after, int limit) {
+        return read(() -> ledger.page(materialId, after, limit));
+    }
+
+    @Override
+    public void forEach(Optional<String> materialId, Consumer<InventoryMovement> action) {
+        // Records never move, so the export reads them back in chunks and only holds the lock per chunk.
+        int[] recordNumbers = read(() -> ledger.recordNumbers(materialId));
+        for (int from = 0; from < recordNumbers.length; from += EXPORT_CHUNK) {
+            int start = from;
+            int end = Math.min(from + EXPORT_CHUNK, recordNumbers.length);
+            read(() -> ledger.movements(recordNumbers, start, end)).forEach(action);
+        }
+    }
+
+    @Override
+    public Optional<InventoryMovement> getById(String id) {
+        return read(() -> ledger.get(id));
+    }
+
+    @Override
+    public InventoryMovement create(String materialId, InventoryMovementType type, BigDecimal quantity, String reason) {
+        MappedMovementLedger.unscaled(quantity);
+        return write(() -> {
+            InventoryMovement created = new InventoryMovement(
+                    UUID.randomUUID().toString(),
+                    materialId,
+                    type,
+                    quantity,
+                    reason,
+                    ledger.nextTimestamp(Instant.now())
+            );
+            ledger.append(created);
+            rollups.onPut(null, created);
+            return created;
+        });
+    }
+
+    @Override
+    public List<InventoryMovement> createAll(List<NewInventoryMovement> movements) {
+        movements.forEach(m -> MappedMovementLedger.unscaled(m.quantity()));
+        return write(() -> {
+            Instant now = ledger.nextTimestamp(Instant.now());
+            List<InventoryMovement> created = movements.stream()
+                    .map(m -> new InventoryMovement(UUID.randomUUID().toString(), m.materialId(), m.type(), m.quantity(), m.reason(), now))
+                    .toList();
+            // The batch shares one timestamp, so appending in id order keeps the ledger in cursor order.
+            created.stream().sorted(Comparator.comparing(InventoryMovement::id)).forEach(ledger::append);
+            created.forEach(m -> rollups.onPut(null, m));
+            return created;
+        });
+    }
+
+    @Override
+    public void delete(String id) {
+        // Under the snapshots lock, like snapshotBalances, so no snapshot is taken between the removal
+        // and the adjustment and then adjusted a second time.
+        snapshots.read(() -> {
+            InventoryMovement movement = write(() -> {
+                InventoryMovement removed = ledger.delete(id)
+                        .orElseThrow(() -> new NoSuchElementException("Inventory movement not found: " + id));
+                rollups.onRemove(removed);
+                return removed;
+            });
+            BigDecimal delta = movement.type().stockDelta(movement.quantity()).negate();
+            List<StockSnapshot> adjusted = snapshotIndex.from(movement.materialId(), movement.createdAt()).stream()
+                    .map(s -> new StockSnapshot(s.materialId(), s.asOf(), s.balance().add(delta)))
+                    .toList();
+            if (!adjusted.isEmpty()) {
+                snapshots.putAll(adjusted);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public <R> R withMaterialLocks(Collection<String> materialIds, Supplier<R> action) {
+        return materialLocks.withLocks(materialIds, action);
+    }
+
+    @Override
+    public BigDecimal getBalance(String materialId) {
+        return read(() -> MappedMovementLedger.quantity(ledger.balance(materialId)));
+    }
+
+    @Override
+    public Map<String, BigDecimal> getBalances(Collection<String> materialIds) {
+        return read(() -> {
+            Map<String, BigDecimal> result = new HashMap<>();
+            materialIds.forEach(id -> result.put(id, MappedMovementLedger.quantity(ledger.balance(id))));
+            return result;
+        });
+    }
+
+    @Override
+    public Map<String, BigDecimal> ledgerBalances(Collection<String> materialIds) {
+        return read(() -> {
+            Map<String, BigDecimal> result = new HashMap<>();
+            ledger.scanBalances(materialIds).forEach((id, balance) -> result.put(id, MappedMovementLedger.quantity(balance)));
+            return result;
+        });
+    }
+
+    @Override
+    public void rebuildBalances() {
+        write(() -> {
+            ledger.rebuildBalances();
+            rollups.rebuild(List.of());
+            ledger.forEach(movement -> rollups.onPut(null, movement));
+            return null;
+        });
+        snapshots.writeAll(List.of());
+    }
+
+    @Override
+    public Optional<StockSnapshot> findSnapshot(String materialId, Instant asOf) {
+        return snapshots.read(() -> snapshotIndex.latest(materialId, asOf));
+    }
+
+    @Override
+    public BigDecimal sumMovements(String materialId, Optional<Instant> after, Instant upTo) {
+        return read(() -> MappedMovementLedger.quantity(ledger.sum(Optional.of(materialId), after, upTo).getOrDefault(materialId, 0L)));
+    }
+
+    @Override
+    public int snapshotBalances(Instant asOf) {
+        return snapshots.read(() -> {
+            Optional<Instant> latest = snapshotIndex.latestAsOf();
+            if (latest.isPresent() && !latest.get().isBefore(asOf)) {
+                return 0;
+            }
+            Map<String, Long> deltas = read(() -> ledger.sum(Optional.empty(), latest, asOf));
+            List<StockSnapshot> taken = new ArrayList<>(deltas.size());
+            deltas.forEach((materialId, delta) -> {
+                BigDecimal base = snapshotIndex.latest(materialId, asOf).map(StockSnapshot::balance).orElse(BigDecimal.ZERO);
+                taken.add(new StockSnapshot(materialId, asOf, base.add(MappedMovementLedger.quantity(delta))));
+            });
+            if (!taken.isEmpty()) {
+                snapshots.putAll(taken);
+            }
+            return taken.size();
+        });
+    }
+
+    @Override
+    public List<MovementRollup> rollups(RollupGranularity granularity, Optional<String> materialId, Instant from, Instant to) {
+        return read(() -> rollups.rollups(granularity, materialId, from, to));
+    }
+
+    @Override
+    public List<MovementRollup> aggregate(Optional<String> materialId, Instant from, Instant to) {
+        return read(() -> ledger.totals(materialId, from, to).entrySet().stream()
+                .map(e -> new MovementRollup(
+                        e.getKey(),
+                        from,
+                        to,
+                        MappedMovementLedger.quantity(e.getValue().in()),
+                        MappedMovementLedger.quantity(e.getValue().out()),
+                        MappedMovementLedger.quantity(e.getValue().adjust()),
+                        e.getValue().movements()
+                ))
+                .toList());
+    }
+
+    @Override
+    public Map<String, Long> countByMaterial() {
+        return read(ledger::countByMaterial);
+    }
+
+    private <R> R read(Supplier<R> action) {
+        return locked(lock.readLock(), action);
+    }
+
+    private <R> R write(Supplier<R> action) {
+        return locked(lock.writeLock(), action);
+    }
+
+    private static <R> R locked(Lock held, Supplier<R> action) {
+        held.lock();
+        try {
+            return action.get();
+        } finally {
+            held.unlock();
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package com.kombaos.inventory.movement.repository.file;
+
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.persistence.file.FileStoreMetrics;
+import com.kombaos.persistence.file.MappedFile;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Movement ledger as fixed-width records in a {@link MappedFile}, in {@code (createdAt, id)} order:
+ *
+ * <pre>
+ *  0  int   material ordinal (line number in the {@code .materials} dictionary)
+ *  4  byte  type ordinal
+ *  5  byte  flags, {@code 1} once deleted
+ *  8  long  quantity in millionths
+ * 16  long  createdAt in epoch nanoseconds
+ * 24  long  offset of the id and reason in the {@code .strings} side file
+ * </pre>
+ *
+ * <p>Sums and totals are computed straight from the mapped records; only reads that return movements
+ * touch the side file. Record numbers per material, running balances and the id lookup are rebuilt
+ * in memory when the ledger is opened; {@link #scanBalances} recomputes balances from the records to
+ * check the running ones. Not thread-safe.
+ */
+class MappedMovementLedger implements AutoCloseable {
+
+    static final int SCALE = 6;
+
+    private static final int RECORD = 32;
+    private static final int RECORDS_MAGIC = 0x4B4C4447;
+    private static final int STRINGS_MAGIC = 0x4B535452;
+    private static final byte DELETED = 1;
+    private static final InventoryMovementType[] TYPES = InventoryMovementType.values();
+
+    private static final class Postings {
+        private int[] records = new int[8];
+        private int size;
+        private int live;
+        private long balance;
+
+        void add(int record) {
+            if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            records[size++] = record;
+        }
+    }
+
+    // Views for the whole ledger, which needs no record list, and for a material that has no records.
+    private static final Postings ALL = new Postings();
+    private static final Postings NONE = new Postings();
+
+    /**
+     * Totals of one material in millionths; {@code out} is positive, {@code adjust} keeps its sign.
+     */
+    record Totals(long in, long out, long adjust, long movements) {
+
+        static final Totals EMPTY = new Totals(0, 0, 0, 0);
+
+        Totals plus(InventoryMovementType type, long quantity) {
+            return new Totals(
+                    type == InventoryMovementType.IN ? Math.addExact(in, quantity) : in,
+                    type == InventoryMovementType.OUT ? Math.addExact(out, quantity) : out,
+                    type == InventoryMovementType.ADJUST ? Math.addExact(adjust, quantity) : adjust,
+                    movements + 1
+            );
+        }
+    }
+
+    private final MappedFile records;
+    private final MappedFile strings;
+    private final Path dictionary;
+    private final List<String> materials = new ArrayList<>();
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final Map<String, Integer> ids = new HashMap<>();
+    private long lastNanos = Long.MIN_VALUE;
+
+    MappedMovementLedger(Path dir, String name, int initialCapacity, FileStoreMetrics metrics) {
+        List<Path> files = files(dir, name);
+        this.dictionary = files.get(0);
+        readDictionary();
+        this.strings = MappedFile.open(files.get(1), STRINGS_MAGIC, initialCapacity, metrics);
+        this.records = MappedFile.open(files.get(2), RECORDS_MAGIC, initialCapacity, metrics);
+        for (int record = 0; record < size(); record++) {
+            int ordinal = data().getInt(offset(record));
+            if (ordinal >= materials.size()) {
+                throw new IllegalStateException("Movement ledger references an unknown material ordinal: " + ordinal);
+            }
+            Postings material = postings.get(ordinal);
+            material.add(record);
+            if (live(record)) {
+                material.live++;
+                material.balance = Math.addExact(material.balance, delta(record));
+                ids.put(id(record), record);
+            }
+            lastNanos = nanos(record);
+        }
+    }
+
+    /**
+     * The dictionary, side and records files of a ledger, records last: until its records file is in
+     * place a ledger reads as empty, whatever the other two hold.
+     */
+    static List<Path> files(Path dir, String name) {
+        return List.of(dir.resolve(name + ".materials"), dir.resolve(name + ".strings"), dir.resolve(name + ".dat"));
+    }
+
+    static long unscaled(BigDecimal quantity) {
+        try {
+            return quantity.setScale(SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Quantity must have at most " + SCALE + " decimals and fit the ledger: " + quantity);
+        }
+    }
+
+    static BigDecimal quantity(long unscaled) {
+        BigDecimal value = BigDecimal.valueOf(unscaled, SCALE).stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    int size() {
+        return (int) (records.used() / RECORD);
+    }
+
+    /**
+     * The timestamp for the next append: {@code now}, or one nanosecond past the last record when the
+     * clock has not moved on, so every append sorts after the records before it.
+     */
+    Instant nextTimestamp(Instant now) {
+        long candidate = nanos(now);
+        return candidate > lastNanos ? now : Instant.ofEpochSecond(0, lastNanos + 1);
+    }
+
+    /**
+     * Appends a movement that sorts after every record already in the ledger.
+     */
+    void append(InventoryMovement movement) {
+        long quantity = unscaled(movement.quantity());
+        long createdAt = nanos(movement.createdAt());
+        if (createdAt < lastNanos) {
+            throw new IllegalStateException("Movement ledger is append-only in createdAt order: " + movement.id());
+        }
+        int ordinal = intern(movement.materialId());
+
+        byte[] id = movement.id().getBytes(StandardCharsets.UTF_8);
+        byte[] reason = movement.reason() == null ? null : movement.reason().getBytes(StandardCharsets.UTF_8);
+        int length = 8 + id.length + (reason == null ? 0 : reason.length);
+        int side = strings.reserve(length);
+        ByteBuffer text = strings.data();
+        text.putInt(side, id.length).put(side + 4, id).putInt(side + 4 + id.length, reason == null ? -1 : reason.length);
+        if (reason != null) {
+            text.put(side + 8 + id.length, reason);
+        }
+        strings.commit(side + length);
+
+        int at = records.reserve(RECORD);
+        records.data()
+                .putInt(at, ordinal)
+                .put(at + 4, (byte) movement.type().ordinal())
+                .put(at + 5, (byte) 0)
+                .putLong(at + 8, quantity)
+                .putLong(at + 16, createdAt)
+                .putLong(at + 24, side);
+        records.commit(at + RECORD);
+
+        int record = at / RECORD;
+        Postings material = postings.get(ordinal);
+        material.add(record);
+        material.live++;
+        material.balance = Math.addExact(material.balance, delta(record));
+        ids.put(movement.id(), record);
+        lastNanos = createdAt;
+    }
+
+    Optional<InventoryMovement> get(String id) {
+        return Optional.ofNullable(ids.get(id)).map(this::movement);
+    }
+
+    Optional<InventoryMovement> delete(String id) {
+        Integer record = ids.remove(id);
+        if (record == null) {
+            return Optional.empty();
+        }
+        InventoryMovement removed = movement(record);
+        data().put(offset(record) + 5, DELETED);
+        Postings material = postings.get(data().getInt(offset(record)));
+        material.live--;
+        material.balance = Math.subtractExact(material.balance, delta(record));
+        return Optional.of(removed);
+    }
+
+    List<InventoryMovement> list(Optional<String> materialId) {
+        return page(materialId, Optional.empty(), Integer.MAX_VALUE);
+    }
+
+    List<InventoryMovement> page(Optional<String> materialId, Optional<InventoryMovementCursor> after, int limit) {
+        Postings view = view(materialId);
+        int count = count(view);
+        int i = after.map(cursor -> after(view, cursor)).orElse(0);
+        List<InventoryMovement> found = new ArrayList<>();
+        for (; i < count && found.size() < limit; i++) {
+            int record = record(view, i);
+            if (live(record)) {
+                found.add(movement(record));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Record numbers of the ledger or of one material, for reading back later with {@link #movements}.
+     */
+    int[] recordNumbers(Optional<String> materialId) {
+        Postings view = view(materialId);
+        int[] found = new int[count(view)];
+        for (int i = 0; i < found.length; i++) {
+            found[i] = record(view, i);
+        }
+        return found;
+    }
+
+    List<InventoryMovement> movements(int[] recordNumbers, int from, int to) {
+        List<InventoryMovement> found = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (live(recordNumbers[i])) {
+                found.add(movement(recordNumbers[i]));
+            }
+        }
+        return found;
+    }
+
+    void forEach(Consumer<InventoryMovement> action) {
+        for (int record = 0; record < size(); record++) {
+            if (live(record)) {
+                action.accept(movement(record));
+            }
+        }
+    }
+
+    long balance(String materialId) {
+        return view(Optional.of(materialId)).balance;
+    }
+
+    /**
+     * Resets the running balances to the sums of the live records.
+     */
+    void rebuildBalances() {
+        postings.forEach(material -> material.balance = 0);
+        for (int record = 0; record < size(); record++) {
+            if (live(record)) {
+                Postings material = postings.get(data().getInt(offset(record)));
+                material.balance = Math.addExact(material.balance, delta(record));
+            }
+        }
+    }
+
+    /**
+     * Balances of {@code materialIds} summed over every live record, independently of the running ones.
+     */
+    Map<String, Long> scanBalances(Collection<String> materialIds) {
+        Map<String, Long> balances = new HashMap<>();
+        materialIds.forEach(id -> balances.put(id, 0L));
+        for (int record = 0; record < size(); record++) {
+            String materialId = materials.get(data().getInt(offset(record)));
+            if (live(record) && balances.containsKey(materialId)) {
+                balances.merge(materialId, delta(record), Math::addExact);
+            }
+        }
+        return balances;
+    }
+
+    /**
+     * Stock delta per material of the movements created in {@code (after, upTo]}.
+     */
+    Map<String, Long> sum(Optional<String> materialId, Optional<Instant> after, Instant upTo) {
+        Postings view = view(materialId);
+        Map<String, Long> deltas = new HashMap<>();
+        int from = after.map(instant -> lowerBound(view, nanos(instant) + 1)).orElse(0);
+        int to = lowerBound(view, nanos(upTo) + 1);
+        for (int i = from; i < to; i++) {
+            int record = record(view, i);
+            if (live(record)) {
+                deltas.merge(materials.get(data().getInt(offset(record))), delta(record), Math::addExact);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Totals per material of the movements created in {@code [from, to)}.
+     */
+    Map<String, Totals> totals(Optional<String> materialId, Instant from, Instant to) {
+        Postings view = view(materialId);
+        Map<String, Totals> totals = new HashMap<>();
+        for (int i = lowerBound(view, nanos(from)), end = lowerBound(view, nanos(to)); i < end; i++) {
+            int record = record(view, i);
+            if (live(record)) {
+                int at = offset(record);
+                totals.merge(
+                        materials.get(data().getInt(at)),
+                        Totals.EMPTY.plus(TYPES[data().get(at + 4)], data().getLong(at + 8)),
+                        (a, b) -> new Totals(
+                                Math.addExact(a.in(), b.in()),
+                                Math.addExact(a.out(), b.out()),
+                                Math.addExact(a.adjust(), b.adjust()),
+                                a.movements() + b.movements()
+                        )
+                );
+            }
+        }
+        return totals;
+    }
+
+    Map<String, Long> countByMaterial() {
+        Map<String, Long> counts = new HashMap<>();
+        for (int ordinal = 0; ordinal < materials.size(); ordinal++) {
+            if (postings.get(ordinal).live > 0) {
+                counts.put(materials.get(ordinal), (long) postings.get(ordinal).live);
+            }
+        }
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        records.close();
+        strings.close();
+    }
+
+    private Postings view(Optional<String> materialId) {
+        return materialId
+                .map(id -> Optional.ofNullable(ordinals.get(id)).map(postings::get).orElse(NONE))
+                .orElse(ALL);
+    }
+
+    private int count(Postings view) {
+        return view == ALL ? size() : view.size;
+    }
+
+    private static int record(Postings view, int i) {
+        return view == ALL ? i : view.records[i];
+    }
+
+    /**
+     * First position in {@code view} whose record was created at or after {@code nanos}.
+     */
+    private int lowerBound(Postings view, long nanos) {
+        int low = 0;
+        int high = count(view);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (nanos(record(view, mid)) < nanos) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int after(Postings view, InventoryMovementCursor cursor) {
+        long createdAt = nanos(cursor.createdAt());
+        int i = lowerBound(view, createdAt);
+        int count = count(view);
+        while (i < count && nanos(record(view, i)) == createdAt && id(record(view, i)).compareTo(cursor.id()) <= 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private ByteBuffer data() {
+        return records.data();
+    }
+
+    private static int offset(int record) {
+        return record * RECORD;
+    }
+
+    private boolean live(int record) {
+        return data().get(offset(record) + 5) != DELETED;
+    }
+
+    private long nanos(int record) {
+        return data().getLong(offset(record) + 16);
+    }
+
+    private long delta(int record) {
+        long quantity = data().getLong(offset(record) + 8);
+        return TYPES[data().get(offset(record) + 4)] == InventoryMovementType.OUT ? -quantity : quantity;
+    }
+
+    private String id(int record) {
+        int side = (int) data().getLong(offset(record) + 24);
+        return text(side);
+    }
+
+    private InventoryMovement movement(int record) {
+        int at = offset(record);
+        int side = (int) data().getLong(at + 24);
+        int idLength = strings.data().getInt(side);
+        int reasonAt = side + 4 + idLength;
+        return new InventoryMovement(
+                text(side),
+                materials.get(data().getInt(at)),
+                TYPES[data().get(at + 4)],
+                quantity(data().getLong(at + 8)),
+                strings.data().getInt(reasonAt) < 0 ? null : text(reasonAt),
+                Instant.ofEpochSecond(0, data().getLong(at + 16))
+        );
+    }
+
+    private String text(int at) {
+        byte[] bytes = new byte[strings.data().getInt(at)];
+        strings.data().get(at + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long nanos(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000_000L), instant.getNano());
+    }
+
+    private int intern(String materialId) {
+        Integer known = ordinals.get(materialId);
+        if (known != null) {
+            return known;
+        }
+        try {
+            Files.writeString(dictionary, materialId + "\n", StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write material dictionary: " + dictionary, e);
+        }
+        return register(materialId);
+    }
+
+    private int register(String materialId) {
+        ordinals.put(materialId, materials.size());
+        materials.add(materialId);
+        postings.add(new Postings());
+        return materials.size() - 1;
+    }
+
+    private void readDictionary() {
+        if (!Files.exists(dictionary)) {
+            return;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(dictionary);
+            int complete = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] == '\n') {
+                    register(new String(bytes, complete, i - complete, StandardCharsets.UTF_8));
+                    complete = i + 1;
+                }
+            }
+            if (complete < bytes.length) {
+                // A crash mid-append leaves a partial line that no record can reference yet.
+                try (FileChannel channel = FileChannel.open(dictionary, StandardOpenOption.WRITE)) {
+                    channel.truncate(complete);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read material dictionary: " + dictionary, e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.kombaos.inventory.movement.repository.file;
+
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.persistence.file.FileStoreIndex;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+class MovementRollupIndex implements FileStoreIndex<InventoryMovement> {
+
+    private static final Comparator<MovementRollup> ORDER = Comparator
+            .comparing(MovementRollup::from)
+            .thenComparing(MovementRollup::materialId);
+
+    private final Map<RollupGranularity, Map<String, NavigableMap<Instant, MovementRollup>>> buckets =
+            new EnumMap<>(RollupGranularity.class);
+
+    MovementRollupIndex() {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            buckets.put(granularity, new HashMap<>());
+        }
+    }
+
+    List<MovementRollup> rollups(RollupGranularity granularity, Optional<String> materialId, Instant from, Instant to) {
+        Map<String, NavigableMap<Instant, MovementRollup>> byMaterial = buckets.get(granularity);
+        Collection<NavigableMap<Instant, MovementRollup>> timelines = materialId
+                .<Collection<NavigableMap<Instant, MovementRollup>>>map(id -> List.of(byMaterial.getOrDefault(id, new TreeMap<>())))
+                .orElseGet(byMaterial::values);
+        List<MovementRollup> found = new ArrayList<>();
+        timelines.forEach(timeline -> found.addAll(timeline.subMap(from, true, to, false).values()));
+        found.sort(ORDER);
+        return found;
+    }
+
+    @Override
+    public void rebuild(Collection<InventoryMovement> items) {
+        buckets.values().forEach(Map::clear);
+        items.forEach(item -> apply(item, false));
+    }
+
+    @Override
+    public void onPut(InventoryMovement previous, InventoryMovement current) {
+        if (previous != null) {
+            apply(previous, true);
+        }
+        apply(current, false);
+    }
+
+    @Override
+    public void onRemove(InventoryMovement removed) {
+        apply(removed, true);
+    }
+
+    private void apply(InventoryMovement movement, boolean subtract) {
+        if (movement.quantity() == null) {
+            return;
+        }
+        buckets.forEach((granularity, byMaterial) -> {
+            Instant start = granularity.floor(movement.createdAt());
+            MovementRollup delta = MovementRollup.of(movement, start, granularity.next(start));
+            NavigableMap<Instant, MovementRollup> timeline = byMaterial.computeIfAbsent(movement.materialId(), id -> new TreeMap<>());
+            MovementRollup merged = timeline.merge(start, subtract ? delta.negate() : delta, MovementRollup::plus);
+            if (merged.movements() == 0) {
+                timeline.remove(start);
+                if (timeline.isEmpty()) {
+                    byMaterial.remove(movement.materialId());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.kombaos.inventory.movement.repository.file;
+
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
+import com.kombaos.persistence.file.FileStoreIndex;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+class MovementTimelineIndex implements FileStoreIndex<InventoryMovement> {
+
+    private final NavigableMap<InventoryMovementCursor, InventoryMovement> all = new TreeMap<>();
+    private final Map<String, NavigableMap<InventoryMovementCursor, InventoryMovement>> byMaterial = new HashMap<>();
+
+    List<InventoryMovement> list(Optional<String> materialId) {
+        return List.copyOf(timeline(materialId).values());
+    }
+
+    List<InventoryMovement> page(Optional<String> materialId, Optional<InventoryMovementCursor> after, int limit) {
+        NavigableMap<InventoryMovementCursor, InventoryMovement> timeline = timeline(materialId);
+        NavigableMap<InventoryMovementCursor, InventoryMovement> tail = after
+                .map(cursor -> timeline.tailMap(cursor, false))
+                .orElse(timeline);
+        return tail.values().stream().limit(limit).toList();
+    }
+
+    List<InventoryMovement> between(Optional<String> materialId, Optional<Instant> after, Instant upTo) {
+        NavigableMap<InventoryMovementCursor, InventoryMovement> timeline = timeline(materialId);
+        NavigableMap<InventoryMovementCursor, InventoryMovement> tail = after
+                .map(from -> timeline.tailMap(new InventoryMovementCursor(from, ""), true))
+                .orElse(timeline);
+        return tail.values().stream()
+                .filter(m -> after.isEmpty() || m.createdAt().isAfter(after.get()))
+                .takeWhile(m -> !m.createdAt().isAfter(upTo))
+                .toList();
+    }
+
+    List<InventoryMovement> range(Optional<String> materialId, Instant from, Instant to) {
+        return timeline(materialId).tailMap(new InventoryMovementCursor(from, ""), true).values().stream()
+                .takeWhile(m -> m.createdAt().isBefore(to))
+                .toList();
+    }
+
+    BigDecimal sum(String materialId) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (InventoryMovement movement : timeline(Optional.of(materialId)).values()) {
+            if (movement.quantity() != null) {
+                sum = sum.add(movement.type().stockDelta(movement.quantity()));
+            }
+        }
+        return sum;
+    }
+
+    Map<String, Long> countByMaterial() {
+        Map<String, Long> counts = new HashMap<>();
+        byMaterial.forEach((materialId, timeline) -> counts.put(materialId, (long) timeline.size()));
+        return counts;
+    }
+
+    @Override
+    public void rebuild(Collection<InventoryMovement> items) {
+        all.clear();
+        byMaterial.clear();
+        items.forEach(this::add);
+    }
+
+    @Override
+    public void onPut(InventoryMovement previous, InventoryMovement current) {
+        if (previous != null) {
+            remove(previous);
+        }
+        add(current);
+    }
+
+    @Override
+    public void onRemove(InventoryMovement removed) {
+        remove(removed);
+    }
+
+    private NavigableMap<InventoryMovementCursor, InventoryMovement> timeline(Optional<String> materialId) {
+        return materialId.map(id -> byMaterial.getOrDefault(id, new TreeMap<>())).orElse(all);
+    }
+
+    private void add(InventoryMovement movement) {
+        InventoryMovementCursor key = InventoryMovementCursor.of(movement);
+        all.put(key, movement);
+        byMaterial.computeIfAbsent(movement.materialId(), id -> new TreeMap<>()).put(key, movement);
+    }
+
+    private void remove(InventoryMovement movement) {
+        InventoryMovementCursor key = InventoryMovementCursor.of(movement);
+        all.remove(key);
+        NavigableMap<InventoryMovementCursor, InventoryMovement> timeline = byMaterial.get(movement.materialId());
+        if (timeline != null) {
+            timeline.remove(key);
+            if (timeline.isEmpty()) {
+                byMaterial.remove(movement.materialId());
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.kombaos.inventory.movement.repository.file;
+
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.persistence.file.FileStoreIndex;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+class StockBalanceIndex implements FileStoreIndex<InventoryMovement> {
+
+    private final Map<String, BigDecimal> balances = new HashMap<>();
+
+    BigDecimal balance(String materialId) {
+        return balances.getOrDefault(materialId, BigDecimal.ZERO);
+    }
+
+    @Override
+    public void rebuild(Collection<InventoryMovement> items) {
+        balances.clear();
+        items.forEach(this::add);
+    }
+
+    @Override
+    public void onPut(InventoryMovement previous, InventoryMovement current) {
+        if (previous != null) {
+            subtract(previous);
+        }
+        add(current);
+    }
+
+    @Override
+    public void onRemove(InventoryMovement removed) {
+        subtract(removed);
+    }
+
+    private void add(InventoryMovement movement) {
+        if (movement.quantity() != null) {
+            balances.merge(movement.materialId(), movement.type().stockDelta(movement.quantity()), BigDecimal::add);
+        }
+    }
+
+    private void subtract(InventoryMovement movement) {
+        if (movement.quantity() != null) {
+            balances.merge(movement.materialId(), movement.type().stockDelta(movement.quantity()).negate(), BigDecimal::add);
+        }
+    }
+}
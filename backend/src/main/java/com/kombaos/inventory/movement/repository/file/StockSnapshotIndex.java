@@ -0,0 +1,57 @@
+package com.kombaos.inventory.movement.repository.file;
+
+import com.kombaos.inventory.movement.domain.StockSnapshot;
+import com.kombaos.persistence.file.FileStoreIndex;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+
+class StockSnapshotIndex implements FileStoreIndex<StockSnapshot> {
+
+    private final Map<String, NavigableMap<Instant, StockSnapshot>> byMaterial = new HashMap<>();
+
+    Optional<StockSnapshot> latest(String materialId, Instant asOf) {
+        NavigableMap<Instant, StockSnapshot> snapshots = byMaterial.get(materialId);
+        return snapshots == null ? Optional.empty() : Optional.ofNullable(snapshots.floorEntry(asOf)).map(Map.Entry::getValue);
+    }
+
+    List<StockSnapshot> from(String materialId, Instant from) {
+        NavigableMap<Instant, StockSnapshot> snapshots = byMaterial.get(materialId);
+        return snapshots == null ? List.of() : List.copyOf(snapshots.tailMap(from, true).values());
+    }
+
+    Optional<Instant> latestAsOf() {
+        return byMaterial.values().stream().map(NavigableMap::lastKey).max(Instant::compareTo);
+    }
+
+    @Override
+    public void rebuild(Collection<StockSnapshot> items) {
+        byMaterial.clear();
+        items.forEach(this::add);
+    }
+
+    @Override
+    public void onPut(StockSnapshot previous, StockSnapshot current) {
+        add(current);
+    }
+
+    @Override
+    public void onRemove(StockSnapshot removed) {
+        NavigableMap<Instant, StockSnapshot> snapshots = byMaterial.get(removed.materialId());
+        if (snapshots != null) {
+            snapshots.remove(removed.asOf());
+            if (snapshots.isEmpty()) {
+                byMaterial.remove(removed.materialId());
+            }
+        }
+    }
+
+    private void add(StockSnapshot snapshot) {
+        byMaterial.computeIfAbsent(snapshot.materialId(), id -> new TreeMap<>()).put(snapshot.asOf(), snapshot);
+    }
+}
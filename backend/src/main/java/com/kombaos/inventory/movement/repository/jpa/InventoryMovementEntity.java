@@ -6,13 +6,17 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.math.BigDecimal;
 import java.time.Instant;
+import org.springframework.data.domain.Persistable;
 
 @Entity
 @Table(name = "inventory_movements")
-public class InventoryMovementEntity {
+public class InventoryMovementEntity implements Persistable<String> {
 
     @Id
     @Column(nullable = false, length = 64)
@@ -34,6 +38,9 @@ public class InventoryMovementEntity {
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
+    @Transient
+    private boolean isNew = true;
+
     protected InventoryMovementEntity() {
     }
 
@@ -53,10 +60,22 @@ public class InventoryMovementEntity {
         this.createdAt = createdAt;
     }
 
+    @Override
     public String getId() {
         return id;
     }
 
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
     public String getMaterialId() {
         return materialId;
     }
@@ -1,8 +1,124 @@
 package com.kombaos.inventory.movement.repository.jpa;
 
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface InventoryMovementJpaRepository extends JpaRepository<InventoryMovementEntity, String> {
-    List<InventoryMovementEntity> findAllByMaterialId(String materialId);
+    interface MaterialMovementCount {
+        String getMaterialId();
+
+        long getMovements();
+    }
+
+    interface MaterialLedgerBalance {
+        String getMaterialId();
+
+        BigDecimal getBalance();
+    }
+
+    interface MaterialMovementTotals {
+        String getMaterialId();
+
+        BigDecimal getQuantityIn();
+
+        BigDecimal getQuantityOut();
+
+        BigDecimal getQuantityAdjust();
+
+        long getMovements();
+    }
+
+    List<InventoryMovementEntity> findAllByOrderByCreatedAtAscIdAsc();
+
+    List<InventoryMovementEntity> findAllByMaterialIdOrderByCreatedAtAscIdAsc(String materialId);
+
+    List<InventoryMovementEntity> findAllByOrderByCreatedAtAscIdAsc(Pageable page);
+
+    List<InventoryMovementEntity> findAllByMaterialIdOrderByCreatedAtAscIdAsc(String materialId, Pageable page);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<InventoryMovementEntity> streamAllByOrderByCreatedAtAscIdAsc();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<InventoryMovementEntity> streamAllByMaterialIdOrderByCreatedAtAscIdAsc(String materialId);
+
+    @Query("""
+            select m from InventoryMovementEntity m
+            where m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id)
+            order by m.createdAt, m.id
+            """)
+    List<InventoryMovementEntity> findPageAfter(Instant createdAt, String id, Pageable page);
+
+    @Query("select m.materialId as materialId, count(m) as movements from InventoryMovementEntity m group by m.materialId")
+    List<MaterialMovementCount> countByMaterial();
+
+    @Query("""
+            select m from InventoryMovementEntity m
+            where m.materialId = :materialId
+              and (m.createdAt > :createdAt or (m.createdAt = :createdAt and m.id > :id))
+            order by m.createdAt, m.id
+            """)
+    List<InventoryMovementEntity> findPageAfter(String materialId, Instant createdAt, String id, Pageable page);
+
+    @Query(value = """
+            select material_id as materialId,
+                   sum(case when type = 'OUT' then -quantity else quantity end) as balance
+            from inventory_movements
+            where material_id in (:materialIds)
+            group by material_id
+            """, nativeQuery = true)
+    List<MaterialLedgerBalance> ledgerBalances(Collection<String> materialIds);
+
+    @Query(value = """
+            select coalesce(sum(case when type = 'OUT' then -quantity else quantity end), 0)
+            from inventory_movements
+            where material_id = :materialId and created_at <= :upTo
+            """, nativeQuery = true)
+    BigDecimal sumUpTo(String materialId, Instant upTo);
+
+    @Query(value = """
+            select coalesce(sum(case when type = 'OUT' then -quantity else quantity end), 0)
+            from inventory_movements
+            where material_id = :materialId and created_at > :after and created_at <= :upTo
+            """, nativeQuery = true)
+    BigDecimal sumBetween(String materialId, Instant after, Instant upTo);
+
+    @Query(value = """
+            select material_id as materialId,
+                   sum(case when type = 'IN' then quantity else 0 end) as quantityIn,
+                   sum(case when type = 'OUT' then quantity else 0 end) as quantityOut,
+                   sum(case when type = 'ADJUST' then quantity else 0 end) as quantityAdjust,
+                   count(*) as movements
+            from inventory_movements
+            where created_at >= :from and created_at < :to
+            group by material_id
+            """, nativeQuery = true)
+    List<MaterialMovementTotals> totalsBetween(Instant from, Instant to);
+
+    @Query(value = """
+            select material_id as materialId,
+                   sum(case when type = 'IN' then quantity else 0 end) as quantityIn,
+                   sum(case when type = 'OUT' then quantity else 0 end) as quantityOut,
+                   sum(case when type = 'ADJUST' then quantity else 0 end) as quantityAdjust,
+                   count(*) as movements
+            from inventory_movements
+            where material_id = :materialId and created_at >= :from and created_at < :to
+            group by material_id
+            """, nativeQuery = true)
+    List<MaterialMovementTotals> totalsBetween(String materialId, Instant from, Instant to);
 }
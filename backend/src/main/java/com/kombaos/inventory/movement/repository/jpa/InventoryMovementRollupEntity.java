@@ -0,0 +1,123 @@
+package com.kombaos.inventory.movement.repository.jpa;
+
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "inventory_movement_rollups")
+@IdClass(InventoryMovementRollupEntity.Key.class)
+public class InventoryMovementRollupEntity {
+
+    public static class Key implements Serializable {
+
+        private RollupGranularity granularity;
+        private String materialId;
+        private Instant bucketStart;
+
+        protected Key() {
+        }
+
+        public Key(RollupGranularity granularity, String materialId, Instant bucketStart) {
+            this.granularity = granularity;
+            this.materialId = materialId;
+            this.bucketStart = bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && granularity == other.granularity
+                    && Objects.equals(materialId, other.materialId)
+                    && Objects.equals(bucketStart, other.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(granularity, materialId, bucketStart);
+        }
+    }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private RollupGranularity granularity;
+
+    @Id
+    @Column(name = "material_id", nullable = false, length = 64)
+    private String materialId;
+
+    @Id
+    @Column(name = "bucket_start", nullable = false)
+    private Instant bucketStart;
+
+    @Column(name = "quantity_in", nullable = false, precision = 19, scale = 6)
+    private BigDecimal quantityIn;
+
+    @Column(name = "quantity_out", nullable = false, precision = 19, scale = 6)
+    private BigDecimal quantityOut;
+
+    @Column(name = "quantity_adjust", nullable = false, precision = 19, scale = 6)
+    private BigDecimal quantityAdjust;
+
+    @Column(nullable = false)
+    private long movements;
+
+    protected InventoryMovementRollupEntity() {
+    }
+
+    public InventoryMovementRollupEntity(
+            RollupGranularity granularity,
+            String materialId,
+            Instant bucketStart,
+            BigDecimal quantityIn,
+            BigDecimal quantityOut,
+            BigDecimal quantityAdjust,
+            long movements
+    ) {
+        this.granularity = granularity;
+        this.materialId = materialId;
+        this.bucketStart = bucketStart;
+        this.quantityIn = quantityIn;
+        this.quantityOut = quantityOut;
+        this.quantityAdjust = quantityAdjust;
+        this.movements = movements;
+    }
+
+    public RollupGranularity getGranularity() {
+        return granularity;
+    }
+
+    public String getMaterialId() {
+        return materialId;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public BigDecimal getQuantityIn() {
+        return quantityIn;
+    }
+
+    public BigDecimal getQuantityOut() {
+        return quantityOut;
+    }
+
+    public BigDecimal getQuantityAdjust() {
+        return quantityAdjust;
+    }
+
+    public long getMovements() {
+        return movements;
+    }
+}
@@ -0,0 +1,86 @@
+package com.kombaos.inventory.movement.repository.jpa;
+
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface InventoryMovementRollupJpaRepository
+        extends JpaRepository<InventoryMovementRollupEntity, InventoryMovementRollupEntity.Key> {
+
+    @Query("""
+            select r from InventoryMovementRollupEntity r
+            where r.granularity = :granularity and r.bucketStart >= :from and r.bucketStart < :to
+            order by r.bucketStart, r.materialId
+            """)
+    List<InventoryMovementRollupEntity> findBuckets(RollupGranularity granularity, Instant from, Instant to);
+
+    @Query("""
+            select r from InventoryMovementRollupEntity r
+            where r.granularity = :granularity and r.materialId = :materialId
+              and r.bucketStart >= :from and r.bucketStart < :to
+            order by r.bucketStart
+            """)
+    List<InventoryMovementRollupEntity> findBuckets(RollupGranularity granularity, String materialId, Instant from, Instant to);
+
+    List<InventoryMovementRollupEntity> findAllByGranularity(RollupGranularity granularity);
+
+    @Modifying
+    @Query(value = """
+            insert into inventory_movement_rollups
+                (granularity, material_id, bucket_start, quantity_in, quantity_out, quantity_adjust, movements)
+            values (:granularity, :materialId, :bucketStart, 0, 0, 0, 0)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(String granularity, String materialId, Instant bucketStart);
+
+    @Modifying
+    @Query("""
+            update InventoryMovementRollupEntity r
+            set r.quantityIn = r.quantityIn + :in,
+                r.quantityOut = r.quantityOut + :out,
+                r.quantityAdjust = r.quantityAdjust + :adjust,
+                r.movements = r.movements + :movements
+            where r.granularity = :granularity and r.materialId = :materialId and r.bucketStart = :bucketStart
+            """)
+    int addToBucket(
+            RollupGranularity granularity,
+            String materialId,
+            Instant bucketStart,
+            BigDecimal in,
+            BigDecimal out,
+            BigDecimal adjust,
+            long movements
+    );
+
+    @Modifying
+    @Query(value = """
+            insert into inventory_movement_rollups
+                (granularity, material_id, bucket_start, quantity_in, quantity_out, quantity_adjust, movements)
+            select 'DAY', material_id, date_trunc('day', created_at),
+                   sum(case when type = 'IN' then quantity else 0 end),
+                   sum(case when type = 'OUT' then quantity else 0 end),
+                   sum(case when type = 'ADJUST' then quantity else 0 end),
+                   count(*)
+            from inventory_movements
+            group by material_id, date_trunc('day', created_at)
+            """, nativeQuery = true)
+    int insertDaysFromLedger();
+
+    @Modifying
+    @Query(value = """
+            insert into inventory_movement_rollups
+                (granularity, material_id, bucket_start, quantity_in, quantity_out, quantity_adjust, movements)
+            select 'MONTH', material_id, date_trunc('month', created_at),
+                   sum(case when type = 'IN' then quantity else 0 end),
+                   sum(case when type = 'OUT' then quantity else 0 end),
+                   sum(case when type = 'ADJUST' then quantity else 0 end),
+                   count(*)
+            from inventory_movements
+            group by material_id, date_trunc('month', created_at)
+            """, nativeQuery = true)
+    int insertMonthsFromLedger();
+}
@@ -1,46 +1,107 @@
 package com.kombaos.inventory.movement.repository.jpa;
 
 import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
 import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.domain.StockSnapshot;
 import com.kombaos.inventory.movement.repository.InventoryMovementStore;
+import com.kombaos.persistence.jpa.IdChunks;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Comparator;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @ConditionalOnProperty(name = "kombaos.environment", havingValue = "cloud", matchIfMissing = true)
 public class JpaInventoryMovementStore implements InventoryMovementStore {
 
     private final InventoryMovementJpaRepository repository;
+    private final MaterialStockBalanceJpaRepository balanceRepository;
+    private final MaterialStockSnapshotJpaRepository snapshotRepository;
+    private final InventoryMovementRollupJpaRepository rollupRepository;
+    private final EntityManager entityManager;
 
-    public JpaInventoryMovementStore(InventoryMovementJpaRepository repository) {
+    public JpaInventoryMovementStore(
+            InventoryMovementJpaRepository repository,
+            MaterialStockBalanceJpaRepository balanceRepository,
+            MaterialStockSnapshotJpaRepository snapshotRepository,
+            InventoryMovementRollupJpaRepository rollupRepository,
+            EntityManager entityManager
+    ) {
         this.repository = repository;
+        this.balanceRepository = balanceRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.rollupRepository = rollupRepository;
+        this.entityManager = entityManager;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<InventoryMovement> list(Optional<String> materialId) {
         List<InventoryMovementEntity> entities = materialId
-                .map(repository::findAllByMaterialId)
-                .orElseGet(repository::findAll);
+                .map(repository::findAllByMaterialIdOrderByCreatedAtAscIdAsc)
+                .orElseGet(repository::findAllByOrderByCreatedAtAscIdAsc);
+        return entities.stream().map(this::toModel).toList();
+    }
 
-        return entities.stream()
-                .map(this::toModel)
-                .sorted(Comparator.comparing(InventoryMovement::createdAt))
-                .toList();
+    @Override
+    @Transactional(readOnly = true)
+    public List<InventoryMovement> page(Optional<String> materialId, Optional<InventoryMovementCursor> after, int limit) {
+        Pageable page = PageRequest.ofSize(limit);
+        List<InventoryMovementEntity> entities;
+        if (after.isEmpty()) {
+            entities = materialId
+                    .map(id -> repository.findAllByMaterialIdOrderByCreatedAtAscIdAsc(id, page))
+                    .orElseGet(() -> repository.findAllByOrderByCreatedAtAscIdAsc(page));
+        } else {
+            InventoryMovementCursor cursor = after.get();
+            entities = materialId
+                    .map(id -> repository.findPageAfter(id, cursor.createdAt(), cursor.id(), page))
+                    .orElseGet(() -> repository.findPageAfter(cursor.createdAt(), cursor.id(), page));
+        }
+        return entities.stream().map(this::toModel).toList();
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void forEach(Optional<String> materialId, Consumer<InventoryMovement> action) {
+        try (Stream<InventoryMovementEntity> entities = materialId
+                .map(repository::streamAllByMaterialIdOrderByCreatedAtAscIdAsc)
+                .orElseGet(repository::streamAllByOrderByCreatedAtAscIdAsc)) {
+            entities.forEach(entity -> {
+                action.accept(toModel(entity));
+                entityManager.detach(entity);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public Optional<InventoryMovement> getById(String id) {
         return repository.findById(id).map(this::toModel);
     }
 
     @Override
+    @Transactional
     public InventoryMovement create(String materialId, InventoryMovementType type, BigDecimal quantity, String reason) {
         InventoryMovementEntity saved = repository.save(new InventoryMovementEntity(
                 UUID.randomUUID().toString(),
@@ -48,17 +109,237 @@ public class JpaInventoryMovementStore implements InventoryMovementStore {
                 type,
                 quantity,
                 reason,
-                Instant.now()
+                now()
         ));
-        return toModel(saved);
+        applyToBalance(materialId, type.stockDelta(quantity), saved.getCreatedAt());
+        InventoryMovement created = toModel(saved);
+        applyToRollups(List.of(created), false);
+        return created;
+    }
+
+    @Override
+    @Transactional
+    public List<InventoryMovement> createAll(List<NewInventoryMovement> movements) {
+        Instant now = now();
+        List<InventoryMovementEntity> entities = movements.stream()
+                .map(m -> new InventoryMovementEntity(UUID.randomUUID().toString(), m.materialId(), m.type(), m.quantity(), m.reason(), now))
+                .toList();
+        repository.saveAll(entities);
+        Map<String, BigDecimal> deltas = new LinkedHashMap<>();
+        movements.forEach(m -> deltas.merge(m.materialId(), m.type().stockDelta(m.quantity()), BigDecimal::add));
+        deltas.forEach((materialId, delta) -> applyToBalance(materialId, delta, now));
+        List<InventoryMovement> created = entities.stream().map(this::toModel).toList();
+        applyToRollups(created, false);
+        return created;
     }
 
     @Override
+    @Transactional
     public void delete(String id) {
-        if (!repository.existsById(id)) {
-            throw new NoSuchElementException("Inventory movement not found: " + id);
+        InventoryMovementEntity entity = repository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Inventory movement not found: " + id));
+        repository.delete(entity);
+        BigDecimal delta = entity.getType().stockDelta(entity.getQuantity()).negate();
+        applyToBalance(entity.getMaterialId(), delta, Instant.now());
+        snapshotRepository.addToSnapshots(entity.getMaterialId(), delta, entity.getCreatedAt());
+        applyToRollups(List.of(toModel(entity)), true);
+    }
+
+    @Override
+    @Transactional
+    public <R> R withMaterialLocks(Collection<String> materialIds, Supplier<R> action) {
+        Instant now = Instant.now();
+        List<String> sorted = materialIds.stream().distinct().sorted().toList();
+        sorted.forEach(id -> balanceRepository.insertIfAbsent(id, now));
+        // Chunks follow the sorted order, so rows are still locked in one global order.
+        IdChunks.of(sorted).forEach(balanceRepository::lockAllById);
+        return action.get();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(String materialId) {
+        return balanceRepository.findById(materialId)
+                .map(MaterialStockBalanceEntity::getBalance)
+                .orElse(BigDecimal.ZERO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> getBalances(Collection<String> materialIds) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        materialIds.forEach(id -> result.put(id, BigDecimal.ZERO));
+        IdChunks.of(materialIds).forEach(chunk ->
+                balanceRepository.findAllById(chunk).forEach(b -> result.put(b.getMaterialId(), b.getBalance())));
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, BigDecimal> ledgerBalances(Collection<String> materialIds) {
+        Map<String, BigDecimal> result = new HashMap<>();
+        materialIds.forEach(id -> result.put(id, BigDecimal.ZERO));
+        IdChunks.of(result.keySet()).forEach(chunk ->
+                repository.ledgerBalances(chunk).forEach(b -> result.put(b.getMaterialId(), b.getBalance())));
+        return result;
+    }
+
+    @Override
+    @Transactional
+    public void rebuildBalances() {
+        balanceRepository.deleteAllInBatch();
+        balanceRepository.insertFromLedger(Instant.now());
+        snapshotRepository.deleteAllInBatch();
+        rebuildRollups();
+    }
+
+    private void rebuildRollups() {
+        rollupRepository.deleteAllInBatch();
+        // Connections run in the UTC session zone, so date_trunc yields the same buckets as RollupGranularity.
+        rollupRepository.insertDaysFromLedger();
+        rollupRepository.insertMonthsFromLedger();
+        // Week truncation differs between databases (H2 starts weeks on Sunday), so weeks are folded from days here.
+        Map<BucketKey, MovementRollup> weeks = new HashMap<>();
+        for (InventoryMovementRollupEntity day : rollupRepository.findAllByGranularity(RollupGranularity.DAY)) {
+            Instant start = RollupGranularity.WEEK.floor(day.getBucketStart());
+            weeks.merge(
+                    new BucketKey(RollupGranularity.WEEK, day.getMaterialId(), start),
+                    toModel(day).over(start, RollupGranularity.WEEK.next(start)),
+                    MovementRollup::plus
+            );
+        }
+        weeks.forEach((key, week) -> entityManager.persist(toEntity(key, week)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<StockSnapshot> findSnapshot(String materialId, Instant asOf) {
+        return snapshotRepository.findFirstByMaterialIdAndAsOfLessThanEqualOrderByAsOfDesc(materialId, micros(asOf))
+                .map(s -> new StockSnapshot(s.getMaterialId(), s.getAsOf(), s.getBalance()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BigDecimal sumMovements(String materialId, Optional<Instant> after, Instant upTo) {
+        return after
+                .map(from -> repository.sumBetween(materialId, from, micros(upTo)))
+                .orElseGet(() -> repository.sumUpTo(materialId, micros(upTo)));
+    }
+
+    @Override
+    @Transactional
+    public int snapshotBalances(Instant at) {
+        Instant asOf = micros(at);
+        Optional<Instant> latest = snapshotRepository.latestAsOf();
+        if (latest.isEmpty()) {
+            return snapshotRepository.insertFromLedger(asOf);
+        }
+        if (!latest.get().isBefore(asOf)) {
+            return 0;
+        }
+        return snapshotRepository.insertSince(latest.get(), asOf);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Long> countByMaterial() {
+        Map<String, Long> counts = new HashMap<>();
+        repository.countByMaterial().forEach(c -> counts.put(c.getMaterialId(), c.getMovements()));
+        return counts;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovementRollup> rollups(RollupGranularity granularity, Optional<String> materialId, Instant from, Instant to) {
+        List<InventoryMovementRollupEntity> entities = materialId
+                .map(id -> rollupRepository.findBuckets(granularity, id, from, to))
+                .orElseGet(() -> rollupRepository.findBuckets(granularity, from, to));
+        return entities.stream().map(this::toModel).toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MovementRollup> aggregate(Optional<String> materialId, Instant from, Instant to) {
+        List<InventoryMovementJpaRepository.MaterialMovementTotals> totals = materialId
+                .map(id -> repository.totalsBetween(id, from, to))
+                .orElseGet(() -> repository.totalsBetween(from, to));
+        return totals.stream()
+                .map(t -> new MovementRollup(
+                        t.getMaterialId(),
+                        from,
+                        to,
+                        t.getQuantityIn(),
+                        t.getQuantityOut(),
+                        t.getQuantityAdjust(),
+                        t.getMovements()
+                ))
+                .toList();
+    }
+
+    private record BucketKey(RollupGranularity granularity, String materialId, Instant start) {
+    }
+
+    private void applyToRollups(List<InventoryMovement> movements, boolean subtract) {
+        Map<BucketKey, MovementRollup> deltas = new LinkedHashMap<>();
+        for (InventoryMovement movement : movements) {
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                Instant start = granularity.floor(movement.createdAt());
+                MovementRollup delta = MovementRollup.of(movement, start, granularity.next(start));
+                deltas.merge(new BucketKey(granularity, movement.materialId(), start), subtract ? delta.negate() : delta, MovementRollup::plus);
+            }
+        }
+        deltas.forEach((key, delta) -> {
+            rollupRepository.insertIfAbsent(key.granularity().name(), key.materialId(), key.start());
+            rollupRepository.addToBucket(
+                    key.granularity(),
+                    key.materialId(),
+                    key.start(),
+                    delta.in(),
+                    delta.out(),
+                    delta.adjust(),
+                    delta.movements()
+            );
+        });
+    }
+
+    private MovementRollup toModel(InventoryMovementRollupEntity entity) {
+        return new MovementRollup(
+                entity.getMaterialId(),
+                entity.getBucketStart(),
+                entity.getGranularity().next(entity.getBucketStart()),
+                entity.getQuantityIn(),
+                entity.getQuantityOut(),
+                entity.getQuantityAdjust(),
+                entity.getMovements()
+        );
+    }
+
+    private static InventoryMovementRollupEntity toEntity(BucketKey key, MovementRollup rollup) {
+        return new InventoryMovementRollupEntity(
+                key.granularity(),
+                key.materialId(),
+                key.start(),
+                rollup.in(),
+                rollup.out(),
+                rollup.adjust(),
+                rollup.movements()
+        );
+    }
+
+    // Timestamp columns keep microseconds and the database may round the rest away, so movements are
+    // stamped, and instants compared, at that precision.
+    private static Instant now() {
+        return micros(Instant.now());
+    }
+
+    private static Instant micros(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private void applyToBalance(String materialId, BigDecimal delta, Instant updatedAt) {
+        if (balanceRepository.addToBalance(materialId, delta, updatedAt) == 0) {
+            balanceRepository.save(new MaterialStockBalanceEntity(materialId, delta, updatedAt));
         }
-        repository.deleteById(id);
     }
 
     private InventoryMovement toModel(InventoryMovementEntity entity) {
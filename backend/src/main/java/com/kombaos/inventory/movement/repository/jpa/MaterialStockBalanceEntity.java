@@ -0,0 +1,44 @@
+package com.kombaos.inventory.movement.repository.jpa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "material_stock_balances")
+public class MaterialStockBalanceEntity {
+
+    @Id
+    @Column(name = "material_id", nullable = false, length = 64)
+    private String materialId;
+
+    @Column(nullable = false, precision = 19, scale = 6)
+    private BigDecimal balance;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected MaterialStockBalanceEntity() {
+    }
+
+    public MaterialStockBalanceEntity(String materialId, BigDecimal balance, Instant updatedAt) {
+        this.materialId = materialId;
+        this.balance = balance;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getMaterialId() {
+        return materialId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
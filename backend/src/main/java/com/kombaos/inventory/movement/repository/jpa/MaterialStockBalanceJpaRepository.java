@@ -0,0 +1,39 @@
+package com.kombaos.inventory.movement.repository.jpa;
+
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface MaterialStockBalanceJpaRepository extends JpaRepository<MaterialStockBalanceEntity, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from MaterialStockBalanceEntity b where b.materialId in :materialIds order by b.materialId")
+    List<MaterialStockBalanceEntity> lockAllById(Collection<String> materialIds);
+
+    @Modifying
+    @Query(value = """
+            insert into material_stock_balances (material_id, balance, updated_at)
+            values (:materialId, 0, :updatedAt)
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertIfAbsent(String materialId, Instant updatedAt);
+
+    @Modifying
+    @Query("update MaterialStockBalanceEntity b set b.balance = b.balance + :delta, b.updatedAt = :updatedAt where b.materialId = :materialId")
+    int addToBalance(String materialId, BigDecimal delta, Instant updatedAt);
+
+    @Modifying
+    @Query(value = """
+            insert into material_stock_balances (material_id, balance, updated_at)
+            select material_id, sum(case when type = 'OUT' then -quantity else quantity end), :updatedAt
+            from inventory_movements
+            group by material_id
+            """, nativeQuery = true)
+    int insertFromLedger(Instant updatedAt);
+}
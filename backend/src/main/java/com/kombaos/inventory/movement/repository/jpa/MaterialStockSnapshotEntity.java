@@ -0,0 +1,67 @@
+package com.kombaos.inventory.movement.repository.jpa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "material_stock_snapshots")
+@IdClass(MaterialStockSnapshotEntity.Key.class)
+public class MaterialStockSnapshotEntity {
+
+    public static class Key implements Serializable {
+
+        private String materialId;
+        private Instant asOf;
+
+        protected Key() {
+        }
+
+        public Key(String materialId, Instant asOf) {
+            this.materialId = materialId;
+            this.asOf = asOf;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other && Objects.equals(materialId, other.materialId) && Objects.equals(asOf, other.asOf);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(materialId, asOf);
+        }
+    }
+
+    @Id
+    @Column(name = "material_id", nullable = false, length = 64)
+    private String materialId;
+
+    @Id
+    @Column(name = "as_of", nullable = false)
+    private Instant asOf;
+
+    @Column(nullable = false, precision = 19, scale = 6)
+    private BigDecimal balance;
+
+    protected MaterialStockSnapshotEntity() {
+    }
+
+    public String getMaterialId() {
+        return materialId;
+    }
+
+    public Instant getAsOf() {
+        return asOf;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+}
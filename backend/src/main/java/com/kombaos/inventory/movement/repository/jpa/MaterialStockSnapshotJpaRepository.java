@@ -0,0 +1,48 @@
+package com.kombaos.inventory.movement.repository.jpa;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface MaterialStockSnapshotJpaRepository
+        extends JpaRepository<MaterialStockSnapshotEntity, MaterialStockSnapshotEntity.Key> {
+
+    Optional<MaterialStockSnapshotEntity> findFirstByMaterialIdAndAsOfLessThanEqualOrderByAsOfDesc(String materialId, Instant asOf);
+
+    @Query("select max(s.asOf) from MaterialStockSnapshotEntity s")
+    Optional<Instant> latestAsOf();
+
+    @Modifying
+    @Query("update MaterialStockSnapshotEntity s set s.balance = s.balance + :delta where s.materialId = :materialId and s.asOf >= :from")
+    int addToSnapshots(String materialId, BigDecimal delta, Instant from);
+
+    @Modifying
+    @Query(value = """
+            insert into material_stock_snapshots (material_id, as_of, balance)
+            select material_id, :asOf, sum(case when type = 'OUT' then -quantity else quantity end)
+            from inventory_movements
+            where created_at <= :asOf
+            group by material_id
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertFromLedger(Instant asOf);
+
+    @Modifying
+    @Query(value = """
+            insert into material_stock_snapshots (material_id, as_of, balance)
+            select m.material_id, :asOf,
+                   coalesce((select s.balance from material_stock_snapshots s
+                             where s.material_id = m.material_id and s.as_of <= :since
+                             order by s.as_of desc
+                             limit 1), 0)
+                   + sum(case when m.type = 'OUT' then -m.quantity else m.quantity end)
+            from inventory_movements m
+            where m.created_at > :since and m.created_at <= :asOf
+            group by m.material_id
+            on conflict do nothing
+            """, nativeQuery = true)
+    int insertSince(Instant since, Instant asOf);
+}
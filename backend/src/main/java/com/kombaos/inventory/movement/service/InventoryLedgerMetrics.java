@@ -0,0 +1,64 @@
+package com.kombaos.inventory.movement.service;
+
+import com.kombaos.config.KombaosProperties;
+import com.kombaos.inventory.movement.repository.InventoryMovementStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ledger size as aggregate gauges, whose cardinality does not grow with the catalogue. The
+ * per-material {@code kombaos.inventory.ledger.size} series is opt-in
+ * ({@code kombaos.ledger-metrics-per-material}), for small catalogues only.
+ */
+@Component
+public class InventoryLedgerMetrics {
+
+    private final InventoryMovementStore store;
+    private final AtomicLong movements = new AtomicLong();
+    private final AtomicLong materials = new AtomicLong();
+    private final AtomicLong largest = new AtomicLong();
+    private final MultiGauge ledgerSize;
+
+    public InventoryLedgerMetrics(InventoryMovementStore store, MeterRegistry meterRegistry, KombaosProperties properties) {
+        this.store = store;
+        Gauge.builder("kombaos.inventory.ledger.movements", movements, AtomicLong::get)
+                .description("Movements recorded in the ledger")
+                .baseUnit("movements")
+                .register(meterRegistry);
+        Gauge.builder("kombaos.inventory.ledger.materials", materials, AtomicLong::get)
+                .description("Materials with at least one movement")
+                .register(meterRegistry);
+        Gauge.builder("kombaos.inventory.ledger.max", largest, AtomicLong::get)
+                .description("Movements recorded for the material with the longest ledger")
+                .baseUnit("movements")
+                .register(meterRegistry);
+        this.ledgerSize = properties.isLedgerMetricsPerMaterial()
+                ? MultiGauge.builder("kombaos.inventory.ledger.size")
+                        .description("Movements recorded per material")
+                        .baseUnit("movements")
+                        .register(meterRegistry)
+                : null;
+    }
+
+    @Scheduled(fixedDelayString = "${kombaos.ledger-metrics-interval:PT1M}")
+    public void refresh() {
+        Map<String, Long> counts = store.countByMaterial();
+        movements.set(counts.values().stream().mapToLong(Long::longValue).sum());
+        materials.set(counts.size());
+        largest.set(counts.values().stream().mapToLong(Long::longValue).max().orElse(0));
+        if (ledgerSize != null) {
+            ledgerSize.register(
+                    counts.entrySet().stream()
+                            .map(e -> MultiGauge.Row.of(Tags.of("material", e.getKey()), e.getValue()))
+                            .toList(),
+                    true
+            );
+        }
+    }
+}
@@ -1,31 +1,64 @@
 package com.kombaos.inventory.movement.service;
 
+import com.kombaos.inventory.material.domain.Material;
 import com.kombaos.inventory.material.service.MaterialService;
 import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
+import com.kombaos.inventory.movement.domain.InventoryMovementPage;
+import com.kombaos.inventory.movement.domain.InventoryStockChangedEvent;
 import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import com.kombaos.inventory.movement.domain.StockDrift;
+import com.kombaos.inventory.movement.domain.StockSnapshot;
 import com.kombaos.inventory.movement.repository.InventoryMovementStore;
 import java.math.BigDecimal;
-import java.util.Comparator;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
 public class InventoryMovementService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final InventoryMovementStore store;
     private final MaterialService materialService;
+    private final ApplicationEventPublisher events;
 
-    public InventoryMovementService(InventoryMovementStore store, MaterialService materialService) {
+    public InventoryMovementService(InventoryMovementStore store, MaterialService materialService, ApplicationEventPublisher events) {
         this.store = store;
         this.materialService = materialService;
+        this.events = events;
     }
 
     public List<InventoryMovement> list(Optional<String> materialId) {
-        return store.list(materialId).stream()
-                .sorted(Comparator.comparing(InventoryMovement::createdAt))
-                .toList();
+        return store.list(materialId);
+    }
+
+    public InventoryMovementPage page(Optional<String> materialId, Optional<InventoryMovementCursor> after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        List<InventoryMovement> items = store.page(materialId, after, limit + 1);
+        if (items.size() <= limit) {
+            return new InventoryMovementPage(items, Optional.empty());
+        }
+        List<InventoryMovement> page = items.subList(0, limit);
+        return new InventoryMovementPage(page, Optional.of(InventoryMovementCursor.of(page.getLast())));
+    }
+
+    public void export(Optional<String> materialId, Consumer<InventoryMovement> action) {
+        store.forEach(materialId, action);
     }
 
     public InventoryMovement getById(String id) {
@@ -34,54 +67,111 @@ public class InventoryMovementService {
 
     public InventoryMovement create(String materialId, InventoryMovementType type, BigDecimal quantity, String reason) {
         materialService.getById(materialId);
+        validate(type, quantity);
 
-        if (quantity == null) {
-            throw new IllegalArgumentException("Quantity is required");
-        }
-        if (quantity.compareTo(BigDecimal.ZERO) == 0) {
-            throw new IllegalArgumentException("Quantity must not be zero");
-        }
-        if (type == null) {
-            throw new IllegalArgumentException("Type is required");
+        InventoryMovement created = store.withMaterialLocks(List.of(materialId), () -> {
+            BigDecimal next = store.getBalance(materialId).add(type.stockDelta(quantity));
+            if (next.compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Insufficient stock for material: " + materialId);
+            }
+            return store.create(materialId, type, quantity, reason);
+        });
+        events.publishEvent(new InventoryStockChangedEvent(Set.of(materialId)));
+        return created;
+    }
+
+    public List<InventoryMovement> createAll(List<NewInventoryMovement> movements) {
+        if (movements.isEmpty()) {
+            throw new IllegalArgumentException("At least one movement is required");
         }
-        if ((type == InventoryMovementType.IN || type == InventoryMovementType.OUT) && quantity.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("Quantity must be positive for IN/OUT movements");
+        if (movements.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " movements per batch");
         }
+        movements.forEach(m -> validate(m.type(), m.quantity()));
 
-        BigDecimal current = getStock(materialId);
-        BigDecimal delta = switch (type) {
-            case IN -> quantity;
-            case OUT -> quantity.negate();
-            case ADJUST -> quantity;
-        };
-        BigDecimal next = current.add(delta);
-        if (next.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalArgumentException("Insufficient stock for material: " + materialId);
-        }
+        Set<String> materialIds = movements.stream().map(NewInventoryMovement::materialId).collect(Collectors.toSet());
+        Set<String> known = materialService.getByIds(materialIds).stream().map(Material::id).collect(Collectors.toSet());
+        materialIds.stream()
+                .filter(id -> !known.contains(id))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new NoSuchElementException("Material not found: " + id);
+                });
 
-        return store.create(materialId, type, quantity, reason);
+        List<InventoryMovement> created = store.withMaterialLocks(materialIds, () -> {
+            Map<String, BigDecimal> running = new HashMap<>(store.getBalances(materialIds));
+            for (NewInventoryMovement m : movements) {
+                BigDecimal next = running.get(m.materialId()).add(m.type().stockDelta(m.quantity()));
+                if (next.compareTo(BigDecimal.ZERO) < 0) {
+                    throw new IllegalArgumentException("Insufficient stock for material: " + m.materialId());
+                }
+                running.put(m.materialId(), next);
+            }
+            return store.createAll(movements);
+        });
+        events.publishEvent(new InventoryStockChangedEvent(materialIds));
+        return created;
     }
 
     public void delete(String id) {
+        InventoryMovement movement = getById(id);
         store.delete(id);
+        events.publishEvent(new InventoryStockChangedEvent(Set.of(movement.materialId())));
     }
 
     public BigDecimal getStock(String materialId) {
         materialService.getById(materialId);
+        return store.getBalance(materialId);
+    }
+
+    public BigDecimal getStockAt(String materialId, Instant asOf) {
+        materialService.getById(materialId);
+        Optional<StockSnapshot> snapshot = store.findSnapshot(materialId, asOf);
+        BigDecimal base = snapshot.map(StockSnapshot::balance).orElse(BigDecimal.ZERO);
+        return base.add(store.sumMovements(materialId, snapshot.map(StockSnapshot::asOf), asOf));
+    }
 
-        List<InventoryMovement> movements = store.list(Optional.of(materialId));
-        BigDecimal stock = BigDecimal.ZERO;
-        for (InventoryMovement m : movements) {
-            BigDecimal q = m.quantity();
-            if (q == null) {
-                continue;
-            }
-            stock = switch (m.type()) {
-                case IN -> stock.add(q);
-                case OUT -> stock.subtract(q);
-                case ADJUST -> stock.add(q);
-            };
+    public int snapshotStock(Instant asOf) {
+        return store.snapshotBalances(asOf);
+    }
+
+    public Map<String, BigDecimal> getStocks(Collection<String> materialIds) {
+        return store.getBalances(materialIds);
+    }
+
+    /**
+     * Materials, all of them when none are given, whose kept balance differs from their ledger.
+     */
+    public List<StockDrift> checkStock(Collection<String> materialIds) {
+        Collection<String> ids = materialIds.isEmpty()
+                ? materialService.list().stream().map(Material::id).toList()
+                : materialIds;
+        Map<String, BigDecimal> balances = store.getBalances(ids);
+        Map<String, BigDecimal> ledger = store.ledgerBalances(ids);
+        return ids.stream()
+                .distinct()
+                .sorted()
+                .filter(id -> balances.get(id).compareTo(ledger.get(id)) != 0)
+                .map(id -> new StockDrift(id, balances.get(id), ledger.get(id)))
+                .toList();
+    }
+
+    public void rebuildStock() {
+        store.rebuildBalances();
+    }
+
+    private static void validate(InventoryMovementType type, BigDecimal quantity) {
+        if (quantity == null) {
+            throw new IllegalArgumentException("Quantity is required");
+        }
+        if (quantity.compareTo(BigDecimal.ZERO) == 0) {
+            throw new IllegalArgumentException("Quantity must not be zero");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Type is required");
+        }
+        if ((type == InventoryMovementType.IN || type == InventoryMovementType.OUT) && quantity.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Quantity must be positive for IN/OUT movements");
         }
-        return stock;
     }
 }
@@ -0,0 +1,102 @@
+package com.kombaos.inventory.movement.service;
+
+import com.kombaos.inventory.material.service.MaterialService;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.repository.InventoryMovementStore;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import org.springframework.stereotype.Service;
+
+/**
+ * Dashboard totals served from the day, week and month buckets the stores keep up to date on every
+ * write. An arbitrary range is split into the coarsest whole buckets that fit, and only the partial
+ * days at its edges are summed from the ledger, so the cost does not grow with the ledger.
+ */
+@Service
+public class MovementRollupService {
+
+    record Segment(Optional<RollupGranularity> granularity, Instant from, Instant to) {
+    }
+
+    private final InventoryMovementStore store;
+    private final MaterialService materialService;
+
+    public MovementRollupService(InventoryMovementStore store, MaterialService materialService) {
+        this.store = store;
+        this.materialService = materialService;
+    }
+
+    public List<MovementRollup> buckets(RollupGranularity granularity, Optional<String> materialId, Instant from, Instant to) {
+        validate(materialId, from, to);
+        return store.rollups(granularity, materialId, granularity.floor(from), to);
+    }
+
+    public List<MovementRollup> totals(Optional<String> materialId, Instant from, Instant to) {
+        validate(materialId, from, to);
+        Map<String, MovementRollup> totals = new TreeMap<>();
+        for (Segment segment : plan(from, to)) {
+            List<MovementRollup> parts = segment.granularity()
+                    .map(g -> store.rollups(g, materialId, segment.from(), segment.to()))
+                    .orElseGet(() -> store.aggregate(materialId, segment.from(), segment.to()));
+            parts.forEach(part -> totals.merge(part.materialId(), part.over(from, to), MovementRollup::plus));
+        }
+        return List.copyOf(totals.values());
+    }
+
+    static List<Segment> plan(Instant from, Instant to) {
+        List<Segment> segments = new ArrayList<>();
+        Instant firstDay = align(RollupGranularity.DAY, from);
+        Instant lastDay = RollupGranularity.DAY.floor(to);
+        if (!firstDay.isBefore(lastDay)) {
+            add(segments, null, from, to);
+            return segments;
+        }
+        add(segments, null, from, firstDay);
+        Instant firstMonth = align(RollupGranularity.MONTH, firstDay);
+        Instant lastMonth = RollupGranularity.MONTH.floor(lastDay);
+        if (firstMonth.isBefore(lastMonth)) {
+            days(segments, firstDay, firstMonth);
+            add(segments, RollupGranularity.MONTH, firstMonth, lastMonth);
+            days(segments, lastMonth, lastDay);
+        } else {
+            days(segments, firstDay, lastDay);
+        }
+        add(segments, null, lastDay, to);
+        return segments;
+    }
+
+    private static void days(List<Segment> segments, Instant from, Instant to) {
+        Instant firstWeek = align(RollupGranularity.WEEK, from);
+        Instant lastWeek = RollupGranularity.WEEK.floor(to);
+        if (firstWeek.isBefore(lastWeek)) {
+            add(segments, RollupGranularity.DAY, from, firstWeek);
+            add(segments, RollupGranularity.WEEK, firstWeek, lastWeek);
+            add(segments, RollupGranularity.DAY, lastWeek, to);
+        } else {
+            add(segments, RollupGranularity.DAY, from, to);
+        }
+    }
+
+    private static Instant align(RollupGranularity granularity, Instant instant) {
+        Instant floor = granularity.floor(instant);
+        return floor.equals(instant) ? instant : granularity.next(floor);
+    }
+
+    private static void add(List<Segment> segments, RollupGranularity granularity, Instant from, Instant to) {
+        if (from.isBefore(to)) {
+            segments.add(new Segment(Optional.ofNullable(granularity), from, to));
+        }
+    }
+
+    private void validate(Optional<String> materialId, Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        materialId.ifPresent(materialService::getById);
+    }
+}
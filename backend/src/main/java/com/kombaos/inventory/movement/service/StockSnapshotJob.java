@@ -0,0 +1,25 @@
+package com.kombaos.inventory.movement.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockSnapshotJob {
+
+    // Movements are stamped before their transaction commits; staying behind the clock keeps a
+    // snapshot from being taken past a movement that is still in flight.
+    static final Duration SETTLE_TIME = Duration.ofMinutes(1);
+
+    private final InventoryMovementService service;
+
+    public StockSnapshotJob(InventoryMovementService service) {
+        this.service = service;
+    }
+
+    @Scheduled(fixedDelayString = "${kombaos.stock-snapshot-interval:PT1H}")
+    public void run() {
+        service.snapshotStock(Instant.now().minus(SETTLE_TIME));
+    }
+}
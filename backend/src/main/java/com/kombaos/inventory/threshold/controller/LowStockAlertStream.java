@@ -0,0 +1,113 @@
+package com.kombaos.inventory.threshold.controller;
+
+import com.kombaos.inventory.threshold.service.InventoryAlertService;
+import com.kombaos.inventory.threshold.service.InventoryAlertService.LowStockAlertChange;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events subscribers of low-stock alerts. Each subscriber first gets a {@code snapshot}
+ * event with the active alerts, then a {@code raised} or {@code cleared} event per transition. Every
+ * subscriber has its own bounded queue drained by its own thread, so it sees its snapshot and the
+ * transitions in order, and a slow client holds up neither the other subscribers nor the request
+ * that changed the stock. A subscriber that fails a send or falls {@link #MAX_PENDING} events behind
+ * is completed with an error and dropped.
+ */
+@Component
+public class LowStockAlertStream {
+
+    static final Duration TIMEOUT = Duration.ofMinutes(30);
+    static final int MAX_PENDING = 256;
+
+    private final InventoryAlertService alertService;
+    private final Map<SseEmitter, ExecutorService> subscribers = new ConcurrentHashMap<>();
+
+    public LowStockAlertStream(InventoryAlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(TIMEOUT.toMillis()));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        emitter.onCompletion(() -> remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(emitter));
+        ExecutorService queue = new ThreadPoolExecutor(
+                1,
+                1,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(MAX_PENDING),
+                Thread.ofVirtual().name("low-stock-alert-stream").factory()
+        );
+        alertService.ensureLoaded();
+        // Registered before the snapshot is queued, so no transition after the snapshot is missed.
+        subscribers.put(emitter, queue);
+        enqueue(emitter, queue, () -> {
+            List<?> snapshot = alertService.lowStockAlerts().stream().map(MaterialStockThresholdController::toResponse).toList();
+            return SseEmitter.event().name("snapshot").data(snapshot);
+        });
+        return emitter;
+    }
+
+    @EventListener
+    public void onChange(LowStockAlertChange change) {
+        String name = change.transition().name().toLowerCase(Locale.ROOT);
+        Object data = MaterialStockThresholdController.toResponse(change.alert());
+        subscribers.forEach((emitter, queue) -> enqueue(emitter, queue, () -> SseEmitter.event().name(name).data(data)));
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach((emitter, queue) -> {
+            queue.shutdownNow();
+            emitter.complete();
+        });
+        subscribers.clear();
+    }
+
+    private void enqueue(SseEmitter emitter, ExecutorService queue, Callable<SseEmitter.SseEventBuilder> event) {
+        try {
+            queue.execute(() -> {
+                try {
+                    emitter.send(event.call());
+                } catch (Exception e) {
+                    // The client went away or the event could not be built; completing lets the container release the connection.
+                    fail(emitter, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(emitter, e);
+        }
+    }
+
+    private void fail(SseEmitter emitter, Exception cause) {
+        ExecutorService queue = subscribers.remove(emitter);
+        if (queue != null) {
+            emitter.completeWithError(cause);
+            queue.shutdownNow();
+        }
+    }
+
+    private void remove(SseEmitter emitter) {
+        ExecutorService queue = subscribers.remove(emitter);
+        if (queue != null) {
+            queue.shutdownNow();
+        }
+    }
+}
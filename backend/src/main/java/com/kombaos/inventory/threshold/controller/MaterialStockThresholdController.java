@@ -5,10 +5,12 @@ import com.kombaos.inventory.threshold.dto.LowStockAlertResponse;
 import com.kombaos.inventory.threshold.dto.MaterialStockThresholdResponse;
 import com.kombaos.inventory.threshold.dto.MaterialStockThresholdUpsertRequest;
 import com.kombaos.inventory.threshold.service.InventoryAlertService;
+import com.kombaos.inventory.threshold.service.InventoryAlertService.LowStockAlert;
 import com.kombaos.inventory.threshold.service.MaterialStockThresholdService;
 import jakarta.validation.Valid;
 import java.util.List;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,16 +18,23 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 public class MaterialStockThresholdController {
 
     private final MaterialStockThresholdService thresholdService;
     private final InventoryAlertService alertService;
+    private final LowStockAlertStream alertStream;
 
-    public MaterialStockThresholdController(MaterialStockThresholdService thresholdService, InventoryAlertService alertService) {
+    public MaterialStockThresholdController(
+            MaterialStockThresholdService thresholdService,
+            InventoryAlertService alertService,
+            LowStockAlertStream alertStream
+    ) {
         this.thresholdService = thresholdService;
         this.alertService = alertService;
+        this.alertStream = alertStream;
     }
 
     @GetMapping("/api/materials/{materialId}/threshold")
@@ -49,9 +58,16 @@ public class MaterialStockThresholdController {
 
     @GetMapping("/api/inventory/alerts/low-stock")
     public List<LowStockAlertResponse> lowStock() {
-        return alertService.lowStockAlerts().stream()
-                .map(a -> new LowStockAlertResponse(a.materialId(), a.name(), a.unit(), a.stock(), a.minStock()))
-                .toList();
+        return alertService.lowStockAlerts().stream().map(MaterialStockThresholdController::toResponse).toList();
+    }
+
+    @GetMapping(value = "/api/inventory/alerts/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter lowStockStream() {
+        return alertStream.subscribe();
+    }
+
+    static LowStockAlertResponse toResponse(LowStockAlert alert) {
+        return new LowStockAlertResponse(alert.materialId(), alert.name(), alert.unit(), alert.stock(), alert.minStock());
     }
 
     private static MaterialStockThresholdResponse toResponse(MaterialStockThreshold threshold) {
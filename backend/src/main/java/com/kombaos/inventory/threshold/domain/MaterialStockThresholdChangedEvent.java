@@ -0,0 +1,9 @@
+package com.kombaos.inventory.threshold.domain;
+
+/**
+ * Published after the stock threshold of a material was set or removed.
+ */
+public record MaterialStockThresholdChangedEvent(
+        String materialId
+) {
+}
@@ -5,15 +5,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.kombaos.config.KombaosProperties;
 import com.kombaos.inventory.threshold.domain.MaterialStockThreshold;
 import com.kombaos.inventory.threshold.repository.MaterialStockThresholdStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import com.kombaos.persistence.file.FileJsonListStore;
+import com.kombaos.persistence.file.FileStoreMetrics;
+import com.kombaos.persistence.file.FileStoreOptions;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 
@@ -26,11 +28,14 @@ public class FileMaterialStockThresholdStore implements MaterialStockThresholdSt
 
     private final FileJsonListStore<MaterialStockThreshold> store;
 
-    public FileMaterialStockThresholdStore(ObjectMapper objectMapper, KombaosProperties properties) {
+    public FileMaterialStockThresholdStore(ObjectMapper objectMapper, KombaosProperties properties, MeterRegistry meterRegistry) {
         this.store = new FileJsonListStore<>(
                 objectMapper,
                 Path.of(properties.getLocalStorageDir()).resolve("material_stock_thresholds.json"),
-                TYPE
+                TYPE,
+                MaterialStockThreshold::materialId,
+                FileStoreOptions.from(properties),
+                new FileStoreMetrics(meterRegistry, "material_stock_thresholds")
         );
     }
 
@@ -44,41 +49,20 @@ public class FileMaterialStockThresholdStore implements MaterialStockThresholdSt
 
     @Override
     public Optional<MaterialStockThreshold> getByMaterialId(String materialId) {
-        return store.withLock(() -> store.readAll().stream().filter(t -> t.materialId().equals(materialId)).findFirst());
+        return store.get(materialId);
     }
 
     @Override
     public MaterialStockThreshold upsert(String materialId, BigDecimal minStock) {
-        return store.withLock(() -> {
-            List<MaterialStockThreshold> all = store.readAll();
-            List<MaterialStockThreshold> updated = new ArrayList<>(all.size() + 1);
-            MaterialStockThreshold result = null;
-            for (MaterialStockThreshold t : all) {
-                if (t.materialId().equals(materialId)) {
-                    result = new MaterialStockThreshold(materialId, minStock, Instant.now());
-                    updated.add(result);
-                } else {
-                    updated.add(t);
-                }
-            }
-            if (result == null) {
-                result = new MaterialStockThreshold(materialId, minStock, Instant.now());
-                updated.add(result);
-            }
-            store.writeAll(updated);
-            return result;
-        });
+        MaterialStockThreshold result = new MaterialStockThreshold(materialId, minStock, Instant.now());
+        store.put(result);
+        return result;
     }
 
     @Override
     public void delete(String materialId) {
-        store.withLock(() -> {
-            List<MaterialStockThreshold> all = store.readAll();
-            List<MaterialStockThreshold> remaining = all.stream().filter(t -> !t.materialId().equals(materialId)).toList();
-            if (remaining.size() == all.size()) {
-                throw new NoSuchElementException("Material stock threshold not found for material: " + materialId);
-            }
-            store.writeAll(remaining);
-        });
+        if (!store.remove(materialId)) {
+            throw new NoSuchElementException("Material stock threshold not found for material: " + materialId);
+        }
     }
 }
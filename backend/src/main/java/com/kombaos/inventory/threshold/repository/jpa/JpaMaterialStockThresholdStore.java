@@ -10,6 +10,7 @@ import java.util.NoSuchElementException;
 import java.util.Optional;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 @ConditionalOnProperty(name = "kombaos.environment", havingValue = "cloud", matchIfMissing = true)
@@ -22,6 +23,7 @@ public class JpaMaterialStockThresholdStore implements MaterialStockThresholdSto
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<MaterialStockThreshold> list() {
         return repository.findAll().stream()
                 .map(this::toModel)
@@ -30,17 +32,20 @@ public class JpaMaterialStockThresholdStore implements MaterialStockThresholdSto
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<MaterialStockThreshold> getByMaterialId(String materialId) {
         return repository.findById(materialId).map(this::toModel);
     }
 
     @Override
+    @Transactional
     public MaterialStockThreshold upsert(String materialId, BigDecimal minStock) {
         MaterialStockThresholdEntity saved = repository.save(new MaterialStockThresholdEntity(materialId, minStock, Instant.now()));
         return toModel(saved);
     }
 
     @Override
+    @Transactional
     public void delete(String materialId) {
         if (!repository.existsById(materialId)) {
             throw new NoSuchElementException("Material stock threshold not found for material: " + materialId);
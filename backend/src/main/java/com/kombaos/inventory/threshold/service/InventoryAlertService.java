@@ -2,18 +2,52 @@ package com.kombaos.inventory.threshold.service;
 
 import com.kombaos.inventory.material.domain.Material;
 import com.kombaos.inventory.material.service.MaterialService;
+import com.kombaos.inventory.movement.domain.InventoryStockChangedEvent;
 import com.kombaos.inventory.movement.service.InventoryMovementService;
 import com.kombaos.inventory.threshold.domain.MaterialStockThreshold;
+import com.kombaos.inventory.threshold.domain.MaterialStockThresholdChangedEvent;
 import com.kombaos.inventory.threshold.repository.MaterialStockThresholdStore;
+import com.kombaos.persistence.StripedLocks;
+import jakarta.annotation.PreDestroy;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+/**
+ * Low-stock alerts. {@link #lowStockAlerts()} computes them from the stores on every call. Next to
+ * that, a set of active alerts is kept only to detect transitions: stock and threshold change events
+ * re-check the materials they name and publish a {@link LowStockAlertChange} for every alert raised
+ * or cleared. The set is computed from scratch on first use and by {@link #resync()}, which also
+ * picks up changes made by other instances or outside the services.
+ *
+ * <p>The change events are handled after the writer's commit on a single upkeep thread, so alert
+ * upkeep neither slows down nor fails a write that already went through. A recheck that fails is
+ * logged and left to the next resync.
+ */
 @Service
 public class InventoryAlertService {
 
+    private static final Logger log = LoggerFactory.getLogger(InventoryAlertService.class);
+
     public record LowStockAlert(
             String materialId,
             String name,
@@ -23,34 +57,173 @@ public class InventoryAlertService {
     ) {
     }
 
+    public enum Transition {
+        RAISED,
+        CLEARED
+    }
+
+    /**
+     * A cleared change carries the last alert raised for the material.
+     */
+    public record LowStockAlertChange(
+            Transition transition,
+            LowStockAlert alert
+    ) {
+    }
+
     private final MaterialService materialService;
     private final InventoryMovementService movementService;
     private final MaterialStockThresholdStore thresholdStore;
+    private final ApplicationEventPublisher events;
+    private final Map<String, LowStockAlert> active = new ConcurrentHashMap<>();
+    private final StripedLocks materialLocks = new StripedLocks(64);
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private final ExecutorService upkeep = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("low-stock-alerts").factory()
+    );
+    private volatile boolean loaded;
 
     public InventoryAlertService(
             MaterialService materialService,
             InventoryMovementService movementService,
-            MaterialStockThresholdStore thresholdStore
+            MaterialStockThresholdStore thresholdStore,
+            ApplicationEventPublisher events
     ) {
         this.materialService = materialService;
         this.movementService = movementService;
         this.thresholdStore = thresholdStore;
+        this.events = events;
     }
 
     public List<LowStockAlert> lowStockAlerts() {
-        List<LowStockAlert> alerts = new ArrayList<>();
-        for (MaterialStockThreshold t : thresholdStore.list()) {
-            BigDecimal min = t.minStock();
-            if (min == null || min.compareTo(BigDecimal.ZERO) <= 0) {
+        List<LowStockAlert> alerts = new ArrayList<>(evaluate(thresholdStore.list()).values());
+        alerts.sort(Comparator.comparing(LowStockAlert::materialId));
+        return alerts;
+    }
+
+    // The services publish outside a transaction, hence the fallback; inside one this waits for the commit.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(InventoryStockChangedEvent event) {
+        dispatch(event.materialIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onThresholdChanged(MaterialStockThresholdChangedEvent event) {
+        dispatch(Set.of(event.materialId()));
+    }
+
+    @PreDestroy
+    public void close() {
+        upkeep.shutdownNow();
+    }
+
+    public void resync() {
+        loadLock.lock();
+        try {
+            reconcile(true);
+            loaded = true;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * Loads the set transitions are detected against, unless it is already loaded. Until then a
+     * change only seeds the set, so subscribers call this before they start listening.
+     */
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                // The first load only seeds the set; there is nothing to transition from yet.
+                reconcile(false);
+                loaded = true;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    private void reconcile(boolean publish) {
+        List<MaterialStockThreshold> thresholds = thresholdStore.list();
+        Set<String> materialIds = new HashSet<>(active.keySet());
+        thresholds.forEach(t -> materialIds.add(t.materialId()));
+        materialLocks.withLocks(materialIds, () -> {
+            Map<String, LowStockAlert> current = evaluate(thresholds);
+            materialIds.forEach(id -> apply(id, current.get(id), publish));
+            return null;
+        });
+    }
+
+    private void dispatch(Set<String> materialIds) {
+        try {
+            upkeep.execute(() -> {
+                try {
+                    recheck(materialIds);
+                } catch (RuntimeException e) {
+                    log.warn("Low-stock recheck failed for materials {}; the next resync corrects it", materialIds, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; there is nobody left to notify.
+        }
+    }
+
+    private void recheck(Set<String> materialIds) {
+        if (!loaded) {
+            ensureLoaded();
+            return;
+        }
+        // Evaluating under the material's lock makes the last check see every committed change.
+        materialLocks.withLocks(materialIds, () -> {
+            List<MaterialStockThreshold> thresholds = materialIds.stream()
+                    .map(thresholdStore::getByMaterialId)
+                    .flatMap(Optional::stream)
+                    .toList();
+            Map<String, LowStockAlert> current = evaluate(thresholds);
+            materialIds.forEach(id -> apply(id, current.get(id), true));
+            return null;
+        });
+    }
+
+    private Map<String, LowStockAlert> evaluate(Collection<MaterialStockThreshold> all) {
+        List<MaterialStockThreshold> thresholds = all.stream()
+                .filter(t -> t.minStock() != null && t.minStock().compareTo(BigDecimal.ZERO) > 0)
+                .toList();
+        if (thresholds.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> materialIds = thresholds.stream().map(MaterialStockThreshold::materialId).collect(Collectors.toSet());
+        Map<String, Material> materials = materialService.getByIds(materialIds).stream()
+                .collect(Collectors.toMap(Material::id, Function.identity()));
+        Map<String, BigDecimal> stocks = movementService.getStocks(materialIds);
+
+        Map<String, LowStockAlert> alerts = new HashMap<>();
+        for (MaterialStockThreshold t : thresholds) {
+            Material material = materials.get(t.materialId());
+            if (material == null) {
                 continue;
             }
-            Material material = materialService.getById(t.materialId());
-            BigDecimal stock = movementService.getStock(t.materialId());
-            if (stock.compareTo(min) < 0) {
-                alerts.add(new LowStockAlert(material.id(), material.name(), material.unit(), stock, min));
+            BigDecimal stock = stocks.getOrDefault(t.materialId(), BigDecimal.ZERO);
+            if (stock.compareTo(t.minStock()) < 0) {
+                alerts.put(material.id(), new LowStockAlert(material.id(), material.name(), material.unit(), stock, t.minStock()));
             }
         }
-        alerts.sort(Comparator.comparing(LowStockAlert::materialId));
         return alerts;
     }
+
+    private void apply(String materialId, LowStockAlert current, boolean publish) {
+        LowStockAlert previous = current == null ? active.remove(materialId) : active.put(materialId, current);
+        if (!publish) {
+            return;
+        }
+        if (previous == null && current != null) {
+            events.publishEvent(new LowStockAlertChange(Transition.RAISED, current));
+        } else if (previous != null && current == null) {
+            events.publishEvent(new LowStockAlertChange(Transition.CLEARED, previous));
+        }
+    }
 }
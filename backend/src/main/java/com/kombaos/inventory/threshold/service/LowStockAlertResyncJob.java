@@ -0,0 +1,19 @@
+package com.kombaos.inventory.threshold.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LowStockAlertResyncJob {
+
+    private final InventoryAlertService service;
+
+    public LowStockAlertResyncJob(InventoryAlertService service) {
+        this.service = service;
+    }
+
+    @Scheduled(fixedDelayString = "${kombaos.low-stock-resync-interval:PT5M}", initialDelayString = "${kombaos.low-stock-resync-interval:PT5M}")
+    public void run() {
+        service.resync();
+    }
+}
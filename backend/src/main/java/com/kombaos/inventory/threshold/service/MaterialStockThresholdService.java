@@ -2,10 +2,12 @@ package com.kombaos.inventory.threshold.service;
 
 import com.kombaos.inventory.material.service.MaterialService;
 import com.kombaos.inventory.threshold.domain.MaterialStockThreshold;
+import com.kombaos.inventory.threshold.domain.MaterialStockThresholdChangedEvent;
 import com.kombaos.inventory.threshold.repository.MaterialStockThresholdStore;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.NoSuchElementException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,10 +15,16 @@ public class MaterialStockThresholdService {
 
     private final MaterialService materialService;
     private final MaterialStockThresholdStore store;
+    private final ApplicationEventPublisher events;
 
-    public MaterialStockThresholdService(MaterialService materialService, MaterialStockThresholdStore store) {
+    public MaterialStockThresholdService(
+            MaterialService materialService,
+            MaterialStockThresholdStore store,
+            ApplicationEventPublisher events
+    ) {
         this.materialService = materialService;
         this.store = store;
+        this.events = events;
     }
 
     public MaterialStockThreshold getByMaterialId(String materialId) {
@@ -35,6 +43,7 @@ public class MaterialStockThresholdService {
         }
 
         MaterialStockThreshold saved = store.upsert(materialId, minStock);
+        events.publishEvent(new MaterialStockThresholdChangedEvent(materialId));
         if (saved.updatedAt() == null) {
             return new MaterialStockThreshold(saved.materialId(), saved.minStock(), Instant.now());
         }
@@ -43,5 +52,6 @@ public class MaterialStockThresholdService {
 
     public void delete(String materialId) {
         store.delete(materialId);
+        events.publishEvent(new MaterialStockThresholdChangedEvent(materialId));
     }
 }
@@ -0,0 +1,76 @@
+package com.kombaos.persistence;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offset page plus a single sort property. A size of zero means unpaged: the whole result, sorted.
+ */
+public record PageQuery(
+        int page,
+        int size,
+        String sort,
+        boolean descending
+) {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    /**
+     * Parses request parameters. {@code sort} is {@code property}, {@code -property} or
+     * {@code property,asc|desc}, and must be one of {@code sortable}.
+     */
+    public static PageQuery of(Integer page, Integer size, String sort, Collection<String> sortable, String defaultSort) {
+        boolean paged = page != null || size != null;
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = !paged ? 0 : size == null ? DEFAULT_SIZE : size;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("page must be >= 0");
+        }
+        if (paged && (pageSize < 1 || pageSize > MAX_SIZE)) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SIZE);
+        }
+
+        String property = sort == null || sort.isBlank() ? defaultSort : sort.trim();
+        boolean descending = false;
+        if (property.startsWith("-")) {
+            property = property.substring(1);
+            descending = true;
+        } else if (property.contains(",")) {
+            String direction = property.substring(property.indexOf(',') + 1).trim();
+            property = property.substring(0, property.indexOf(',')).trim();
+            if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+                throw new IllegalArgumentException("Invalid sort direction: " + direction);
+            }
+            descending = direction.equalsIgnoreCase("desc");
+        }
+        if (!sortable.contains(property)) {
+            throw new IllegalArgumentException("Cannot sort by " + property + "; expected one of " + sortable);
+        }
+        return new PageQuery(pageNumber, pageSize, property, descending);
+    }
+
+    public boolean paged() {
+        return size > 0;
+    }
+
+    public long offset() {
+        return (long) page * size;
+    }
+
+    /**
+     * Sorts and slices an in-memory result for stores without a query engine.
+     */
+    public <T> PageResult<T> apply(List<T> items, Map<String, Comparator<T>> comparators) {
+        Comparator<T> comparator = comparators.get(sort);
+        List<T> sorted = items.stream().sorted(descending ? comparator.reversed() : comparator).toList();
+        if (!paged()) {
+            return new PageResult<>(sorted, sorted.size());
+        }
+        int from = (int) Math.min(offset(), sorted.size());
+        int to = Math.min(from + size, sorted.size());
+        return new PageResult<>(sorted.subList(from, to), sorted.size());
+    }
+}
@@ -0,0 +1,34 @@
+package com.kombaos.persistence;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+public class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+
+    public StripedLocks(int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <R> R withLocks(Collection<String> keys, Supplier<R> action) {
+        // Always acquire in stripe order so overlapping key sets cannot deadlock.
+        TreeSet<Integer> indexes = new TreeSet<>();
+        keys.forEach(key -> indexes.add(Math.floorMod(key.hashCode(), stripes.length)));
+        for (int index : indexes) {
+            stripes[index].lock();
+        }
+        try {
+            return action.get();
+        } finally {
+            for (int index : indexes.descendingSet()) {
+                stripes[index].unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.kombaos.persistence.file;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * On-disk encoding of a {@link FileJsonListStore}: the snapshot document and the framing of journal
+ * entries. Journal reads stop at the first frame that cannot be decoded and report it as a torn tail.
+ */
+public interface FileCodec {
+
+    record Journal(List<JsonNode> entries, boolean torn) {
+    }
+
+    byte[] encode(Iterable<?> records) throws IOException;
+
+    <V> V decode(byte[] bytes, TypeReference<V> type) throws IOException;
+
+    byte[] frame(JsonNode entry) throws IOException;
+
+    Journal readJournal(InputStream in) throws IOException;
+}
@@ -1,30 +1,107 @@
 package com.kombaos.persistence.file;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
+/**
+ * Snapshot of records in the {@link FileCodec} picked by {@link FileStoreOptions#format()}. In journaled
+ * mode mutations are appended to {@code <file>.journal} and folded into the snapshot on compaction or on
+ * the first access after a restart. A journal found on disk is replayed and compacted whatever the mode,
+ * so turning journaling off neither drops its entries nor leaves them to be replayed later. When the
+ * configured format has no files yet but another format does, the first access converts them and
+ * removes the old files.
+ *
+ * <p>Records are kept resident in memory after the first access. Every access compares the size and
+ * modification time of both files with the ones this instance last wrote, and reloads from disk when
+ * another process changed them. Registered {@link FileStoreIndex} projections are kept in step with
+ * every load and mutation under the same lock.
+ *
+ * <p>{@link #version()} changes on every mutation and reload. It is seeded from the wall clock so it
+ * keeps increasing across restarts.
+ */
 public class FileJsonListStore<T> {
 
+    private static final String OP_PUT = "put";
+    private static final String OP_REMOVE = "remove";
+
+    private record FileState(long size, long lastModified) {
+        static final FileState MISSING = new FileState(-1, -1);
+    }
+
     private final ObjectMapper objectMapper;
+    private final Path baseFile;
     private final Path storageFile;
+    private final Path journalFile;
     private final TypeReference<List<T>> type;
+    private final JavaType itemType;
+    private final Function<T, String> keyOf;
+    private final FileStoreOptions options;
+    private final FileCodec codec;
+    private final FileStoreMetrics metrics;
     private final ReentrantLock lock = new ReentrantLock();
+    private final List<FileStoreIndex<T>> indexes = new ArrayList<>();
+    private Map<String, T> items;
+    private FileState storageState = FileState.MISSING;
+    private FileState journalState = FileState.MISSING;
+    private int journalEntries;
+    private boolean tornJournal;
+    private long version = System.currentTimeMillis() * 1000;
 
-    public FileJsonListStore(ObjectMapper objectMapper, Path storageFile, TypeReference<List<T>> type) {
+    public FileJsonListStore(
+            ObjectMapper objectMapper,
+            Path storageFile,
+            TypeReference<List<T>> type,
+            Function<T, String> keyOf,
+            FileStoreOptions options
+    ) {
+        this(objectMapper, storageFile, type, keyOf, options, FileStoreMetrics.NOOP);
+    }
+
+    public FileJsonListStore(
+            ObjectMapper objectMapper,
+            Path storageFile,
+            TypeReference<List<T>> type,
+            Function<T, String> keyOf,
+            FileStoreOptions options,
+            FileStoreMetrics metrics
+    ) {
         this.objectMapper = objectMapper;
-        this.storageFile = storageFile;
+        this.baseFile = storageFile;
+        this.storageFile = options.format().resolve(storageFile);
+        this.journalFile = journalOf(this.storageFile);
         this.type = type;
+        this.itemType = objectMapper.getTypeFactory().constructType(type).getContentType();
+        this.keyOf = keyOf;
+        this.options = options;
+        this.codec = options.format().codec(objectMapper);
+        this.metrics = metrics;
+    }
+
+    private static Path journalOf(Path storageFile) {
+        return storageFile.resolveSibling(storageFile.getFileName() + ".journal");
     }
 
     public <R> R withLock(java.util.function.Supplier<R> action) {
-        lock.lock();
+        lock();
         try {
             return action.get();
         } finally {
@@ -33,7 +110,7 @@ public class FileJsonListStore<T> {
     }
 
     public void withLock(Runnable action) {
-        lock.lock();
+        lock();
         try {
             action.run();
         } finally {
@@ -41,30 +118,332 @@ public class FileJsonListStore<T> {
         }
     }
 
+    private void lock() {
+        if (lock.tryLock()) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.lock();
+        metrics.recordLockWait(System.nanoTime() - start);
+    }
+
+    public void addIndex(FileStoreIndex<T> index) {
+        withLock(() -> {
+            indexes.add(index);
+            if (items != null) {
+                index.rebuild(items.values());
+            }
+        });
+    }
+
+    public <R> R read(java.util.function.Supplier<R> action) {
+        return withLock(() -> {
+            resident();
+            return action.get();
+        });
+    }
+
+    public long version() {
+        return withLock(() -> {
+            resident();
+            return version;
+        });
+    }
+
     public List<T> readAll() {
+        return withLock(() -> new ArrayList<>(resident().values()));
+    }
+
+    public Optional<T> get(String key) {
+        return withLock(() -> Optional.ofNullable(resident().get(key)));
+    }
+
+    public List<T> getAll(Collection<String> keys) {
+        return withLock(() -> {
+            Map<String, T> current = resident();
+            List<T> found = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                T item = current.get(key);
+                if (item != null) {
+                    found.add(item);
+                }
+            }
+            return found;
+        });
+    }
+
+    /**
+     * Reads the records as they are on disk, in whichever format holds them, without converting,
+     * compacting or keeping them resident, so the files are left exactly as they were.
+     */
+    public List<T> readDetached() {
+        return withLock(() -> {
+            for (FileStoreFormat format : detachedFormats()) {
+                Path file = format.resolve(baseFile);
+                Path journal = journalOf(file);
+                if (Files.exists(file) || Files.exists(journal)) {
+                    FileCodec formatCodec = format.codec(objectMapper);
+                    Map<String, T> loaded = readSnapshot(file, formatCodec);
+                    replayJournal(journal, formatCodec, loaded);
+                    return new ArrayList<>(loaded.values());
+                }
+            }
+            return new ArrayList<>();
+        });
+    }
+
+    private List<FileStoreFormat> detachedFormats() {
+        List<FileStoreFormat> formats = new ArrayList<>(List.of(FileStoreFormat.values()));
+        formats.remove(options.format());
+        formats.addFirst(options.format());
+        return formats;
+    }
+
+    public void writeAll(List<T> items) {
+        withLock(() -> {
+            Map<String, T> replaced = new LinkedHashMap<>();
+            for (T item : items) {
+                replaced.put(keyOf.apply(item), item);
+            }
+            writeSnapshot(replaced.values());
+            clearJournal();
+            this.items = replaced;
+            version++;
+            indexes.forEach(index -> index.rebuild(replaced.values()));
+        });
+    }
+
+    public void put(T item) {
+        putAll(List.of(item));
+    }
+
+    public void putAll(List<T> batch) {
+        withLock(() -> {
+            Map<String, T> current = resident();
+            for (T item : batch) {
+                T previous = current.put(keyOf.apply(item), item);
+                indexes.forEach(index -> index.onPut(previous, item));
+            }
+            version++;
+            persist(() -> batch.stream().map(this::putEntry).toList());
+        });
+    }
+
+    public boolean remove(String key) {
+        return withLock(() -> {
+            Map<String, T> current = resident();
+            T removed = current.remove(key);
+            if (removed == null) {
+                return false;
+            }
+            indexes.forEach(index -> index.onRemove(removed));
+            version++;
+            persist(() -> {
+                ObjectNode entry = objectMapper.createObjectNode();
+                entry.put("op", OP_REMOVE);
+                entry.put("key", key);
+                return List.of(entry);
+            });
+            return true;
+        });
+    }
+
+    private ObjectNode putEntry(T item) {
+        ObjectNode entry = objectMapper.createObjectNode();
+        entry.put("op", OP_PUT);
+        entry.set("item", objectMapper.valueToTree(item));
+        return entry;
+    }
+
+    private void persist(java.util.function.Supplier<List<ObjectNode>> entries) {
         try {
-            if (!Files.exists(storageFile)) {
-                return new ArrayList<>();
+            if (options.journaled()) {
+                appendJournal(entries.get());
+            } else {
+                writeSnapshot(items.values());
             }
-            byte[] json = Files.readAllBytes(storageFile);
-            if (json.length == 0) {
-                return new ArrayList<>();
+        } catch (RuntimeException e) {
+            // The resident copy is ahead of the disk now; drop it so the next access reloads.
+            items = null;
+            throw e;
+        }
+    }
+
+    private Map<String, T> resident() {
+        boolean firstLoad = items == null;
+        if (firstLoad) {
+            convertFromOtherFormat();
+        }
+        if (firstLoad || !storageState.equals(stat(storageFile)) || !journalState.equals(stat(journalFile))) {
+            load();
+            if (tornJournal || (journalEntries > 0 && (firstLoad || !options.journaled()))) {
+                compact();
             }
-            return new ArrayList<>(objectMapper.readValue(json, type));
+        }
+        return items;
+    }
+
+    private void load() {
+        Map<String, T> loaded = readSnapshot(storageFile, codec);
+        FileCodec.Journal journal = replayJournal(journalFile, codec, loaded);
+        journalEntries = journal.entries().size();
+        tornJournal = journal.torn();
+        items = loaded;
+        version++;
+        indexes.forEach(index -> index.rebuild(loaded.values()));
+        storageState = stat(storageFile);
+        journalState = stat(journalFile);
+    }
+
+    private void compact() {
+        writeSnapshot(items.values());
+        clearJournal();
+    }
+
+    private void convertFromOtherFormat() {
+        if (Files.exists(storageFile) || Files.exists(journalFile)) {
+            return;
+        }
+        for (FileStoreFormat other : FileStoreFormat.values()) {
+            Path otherFile = other.resolve(baseFile);
+            Path otherJournal = journalOf(otherFile);
+            if (other == options.format() || (!Files.exists(otherFile) && !Files.exists(otherJournal))) {
+                continue;
+            }
+            FileCodec otherCodec = other.codec(objectMapper);
+            Map<String, T> converted = readSnapshot(otherFile, otherCodec);
+            replayJournal(otherJournal, otherCodec, converted);
+            writeSnapshot(converted.values());
+            try {
+                Files.deleteIfExists(otherJournal);
+                Files.deleteIfExists(otherFile);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to remove converted store: " + otherFile, e);
+            }
+            return;
+        }
+    }
+
+    private Map<String, T> readSnapshot(Path file, FileCodec fileCodec) {
+        try {
+            Map<String, T> loaded = new LinkedHashMap<>();
+            if (!Files.exists(file)) {
+                return loaded;
+            }
+            byte[] bytes = Files.readAllBytes(file);
+            if (bytes.length == 0) {
+                return loaded;
+            }
+            metrics.recordBytes(FileStoreMetrics.SNAPSHOT_READ, bytes.length);
+            List<T> decoded = metrics.timeSerialization(FileStoreMetrics.SNAPSHOT_READ, () -> decode(fileCodec, file, bytes));
+            for (T item : decoded) {
+                loaded.put(keyOf.apply(item), item);
+            }
+            return loaded;
         } catch (IOException e) {
-            throw new IllegalStateException("Failed to read store: " + storageFile, e);
+            throw new IllegalStateException("Failed to read store: " + file, e);
         }
     }
 
-    public void writeAll(List<T> items) {
+    private List<T> decode(FileCodec fileCodec, Path file, byte[] bytes) {
+        try {
+            return fileCodec.decode(bytes, type);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read store: " + file, e);
+        }
+    }
+
+    private byte[] encode(Iterable<T> snapshot) {
+        try {
+            return codec.encode(snapshot);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to write store: " + storageFile, e);
+        }
+    }
+
+    private void writeSnapshot(Iterable<T> snapshot) {
         try {
             Files.createDirectories(storageFile.getParent());
             Path temp = Files.createTempFile(storageFile.getParent(), storageFile.getFileName().toString(), ".tmp");
-            byte[] json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(items);
-            Files.write(temp, json);
+            byte[] bytes = metrics.timeSerialization(FileStoreMetrics.SNAPSHOT_WRITE, () -> encode(snapshot));
+            Files.write(temp, bytes);
+            metrics.recordBytes(FileStoreMetrics.SNAPSHOT_WRITE, bytes.length);
             Files.move(temp, storageFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            storageState = stat(storageFile);
         } catch (IOException e) {
             throw new IllegalStateException("Failed to write store: " + storageFile, e);
         }
     }
+
+    private FileCodec.Journal replayJournal(Path file, FileCodec fileCodec, Map<String, T> target) {
+        if (!Files.exists(file)) {
+            return new FileCodec.Journal(List.of(), false);
+        }
+        long start = System.nanoTime();
+        FileCodec.Journal journal;
+        try (InputStream in = Files.newInputStream(file)) {
+            // A torn tail is left by a crash mid-append; everything before it is intact.
+            journal = fileCodec.readJournal(in);
+            for (JsonNode entry : journal.entries()) {
+                applyJournalEntry(target, entry);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read journal: " + file, e);
+        }
+        metrics.recordSerialization(FileStoreMetrics.JOURNAL_READ, System.nanoTime() - start);
+        metrics.recordBytes(FileStoreMetrics.JOURNAL_READ, stat(file).size());
+        return journal;
+    }
+
+    private void applyJournalEntry(Map<String, T> target, JsonNode entry) throws IOException {
+        String op = entry.path("op").asText();
+        if (OP_PUT.equals(op)) {
+            T item = objectMapper.readerFor(itemType).readValue(entry.get("item"));
+            target.put(keyOf.apply(item), item);
+        } else if (OP_REMOVE.equals(op)) {
+            target.remove(entry.path("key").asText());
+        }
+    }
+
+    private void appendJournal(List<ObjectNode> entries) {
+        try {
+            if (!Files.exists(storageFile)) {
+                writeSnapshot(List.of());
+            }
+            long start = System.nanoTime();
+            ByteArrayOutputStream frames = new ByteArrayOutputStream();
+            for (ObjectNode entry : entries) {
+                frames.write(codec.frame(entry));
+            }
+            metrics.recordSerialization(FileStoreMetrics.JOURNAL_APPEND, System.nanoTime() - start);
+            Files.write(journalFile, frames.toByteArray(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            metrics.recordBytes(FileStoreMetrics.JOURNAL_APPEND, frames.size());
+            journalState = stat(journalFile);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to append journal: " + journalFile, e);
+        }
+        journalEntries += entries.size();
+        if (journalEntries >= options.compactionThreshold()) {
+            compact();
+        }
+    }
+
+    private void clearJournal() {
+        try {
+            Files.deleteIfExists(journalFile);
+            journalEntries = 0;
+            journalState = FileState.MISSING;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to truncate journal: " + journalFile, e);
+        }
+    }
+
+    private static FileState stat(Path file) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileState(attributes.size(), attributes.lastModifiedTime().toMillis());
+        } catch (IOException e) {
+            return FileState.MISSING;
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.kombaos.persistence.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum FileStoreFormat {
+    JSON("json"),
+    SMILE("smile");
+
+    private final String extension;
+
+    FileStoreFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public static FileStoreFormat parse(String value) {
+        for (FileStoreFormat format : values()) {
+            if (format.extension.equals(value.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown local storage format: " + value);
+    }
+
+    FileCodec codec(ObjectMapper objectMapper) {
+        return switch (this) {
+            case JSON -> new JsonFileCodec(objectMapper);
+            case SMILE -> new SmileFileCodec(objectMapper);
+        };
+    }
+
+    /**
+     * The file this format keeps {@code storageFile} in: the same name with this format's extension.
+     */
+    Path resolve(Path storageFile) {
+        String name = storageFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return storageFile.resolveSibling((dot < 0 ? name : name.substring(0, dot)) + "." + extension);
+    }
+}
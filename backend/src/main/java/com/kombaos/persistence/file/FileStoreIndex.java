@@ -0,0 +1,11 @@
+package com.kombaos.persistence.file;
+
+import java.util.Collection;
+
+public interface FileStoreIndex<T> {
+    void rebuild(Collection<T> items);
+
+    void onPut(T previous, T current);
+
+    void onRemove(T removed);
+}
@@ -0,0 +1,62 @@
+package com.kombaos.persistence.file;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+public class FileStoreMetrics {
+
+    public static final FileStoreMetrics NOOP = new FileStoreMetrics(new CompositeMeterRegistry(), "none");
+
+    static final String SNAPSHOT_READ = "snapshot.read";
+    static final String SNAPSHOT_WRITE = "snapshot.write";
+    static final String JOURNAL_READ = "journal.read";
+    static final String JOURNAL_APPEND = "journal.append";
+    static final String MAPPED_APPEND = "mapped.append";
+
+    private final MeterRegistry registry;
+    private final String store;
+    private final Timer lockWait;
+
+    public FileStoreMetrics(MeterRegistry registry, String store) {
+        this.registry = registry;
+        this.store = store;
+        this.lockWait = Timer.builder("kombaos.file.store.lock.wait")
+                .description("Time spent waiting for the file store lock")
+                .tag("store", store)
+                .register(registry);
+    }
+
+    void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    void recordBytes(String op, long bytes) {
+        DistributionSummary.builder("kombaos.file.store.bytes")
+                .description("Bytes read or written per file store operation")
+                .baseUnit("bytes")
+                .tag("store", store)
+                .tag("op", op)
+                .register(registry)
+                .record(bytes);
+    }
+
+    <R> R timeSerialization(String op, Supplier<R> action) {
+        return serialization(op).record(action);
+    }
+
+    void recordSerialization(String op, long nanos) {
+        serialization(op).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer serialization(String op) {
+        return Timer.builder("kombaos.file.store.serialization")
+                .description("Time spent encoding or decoding file store records")
+                .tag("store", store)
+                .tag("op", op)
+                .register(registry);
+    }
+}
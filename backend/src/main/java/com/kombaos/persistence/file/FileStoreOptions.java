@@ -0,0 +1,22 @@
+package com.kombaos.persistence.file;
+
+import com.kombaos.config.KombaosProperties;
+
+public record FileStoreOptions(
+        boolean journaled,
+        int compactionThreshold,
+        FileStoreFormat format
+) {
+
+    public FileStoreOptions(boolean journaled, int compactionThreshold) {
+        this(journaled, compactionThreshold, FileStoreFormat.JSON);
+    }
+
+    public static FileStoreOptions from(KombaosProperties properties) {
+        return new FileStoreOptions(
+                properties.isLocalStorageJournal(),
+                properties.getLocalStorageCompactionThreshold(),
+                FileStoreFormat.parse(properties.getLocalStorageFormat())
+        );
+    }
+}
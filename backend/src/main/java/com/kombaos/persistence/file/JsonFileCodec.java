@@ -0,0 +1,67 @@
+package com.kombaos.persistence.file;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Indented JSON snapshot and newline-delimited JSON journal; readable and editable by hand.
+ */
+class JsonFileCodec implements FileCodec {
+
+    private final ObjectMapper objectMapper;
+    // Journal entries are read as trees first; decimals must not pass through a double on the way.
+    private final ObjectReader journalReader;
+
+    JsonFileCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.journalReader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    @Override
+    public byte[] encode(Iterable<?> records) throws IOException {
+        return objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(records);
+    }
+
+    @Override
+    public <V> V decode(byte[] bytes, TypeReference<V> type) throws IOException {
+        return objectMapper.readValue(bytes, type);
+    }
+
+    @Override
+    public byte[] frame(JsonNode entry) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(entry);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    @Override
+    public Journal readJournal(InputStream in) throws IOException {
+        List<JsonNode> entries = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                entries.add(journalReader.readTree(line));
+            } catch (JsonProcessingException e) {
+                return new Journal(entries, true);
+            }
+        }
+        return new Journal(entries, false);
+    }
+}
@@ -0,0 +1,108 @@
+package com.kombaos.persistence.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only file mapped read-write into memory. A 16-byte header holds a magic number, a layout
+ * version and the number of data bytes in use; {@link #data()} is a view of the data region starting
+ * at offset 0. Space is handed out by {@link #reserve(int)} and only becomes part of the file once
+ * {@link #commit(long)} records the new length, so a crash mid-append leaves the previous length.
+ *
+ * <p>The mapping doubles when it runs out of room, up to 2 GB of data. Not thread-safe: callers
+ * serialize writers and keep readers off while {@link #reserve(int)} may remap.
+ */
+public final class MappedFile implements AutoCloseable {
+
+    private static final int HEADER = 16;
+    private static final int VERSION = 1;
+    private static final long MAX_CAPACITY = Integer.MAX_VALUE;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FileStoreMetrics metrics;
+    private MappedByteBuffer mapping;
+    private ByteBuffer data;
+    private long used;
+
+    private MappedFile(Path file, FileChannel channel, long capacity, FileStoreMetrics metrics) throws IOException {
+        this.file = file;
+        this.channel = channel;
+        this.metrics = metrics;
+        map(capacity);
+    }
+
+    public static MappedFile open(Path file, int magic, int initialCapacity, FileStoreMetrics metrics) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedFile mapped = new MappedFile(file, channel, Math.max(initialCapacity, channel.size() - HEADER), metrics);
+            // Mapping zero-fills a short file, so a new file and one whose header a crash cut short both read as blank.
+            if (mapped.blankHeader()) {
+                mapped.mapping.putInt(0, magic).putInt(4, VERSION).putLong(8, 0);
+            } else if (mapped.mapping.getInt(0) != magic || mapped.mapping.getInt(4) != VERSION) {
+                channel.close();
+                throw new IllegalStateException("Not a recognized mapped file: " + file);
+            }
+            mapped.used = mapped.mapping.getLong(8);
+            return mapped;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to open mapped file: " + file, e);
+        }
+    }
+
+    public long used() {
+        return used;
+    }
+
+    public ByteBuffer data() {
+        return data;
+    }
+
+    /**
+     * Makes room for {@code length} more bytes and returns the offset they start at.
+     */
+    public int reserve(int length) {
+        long end = used + length;
+        if (end > data.capacity()) {
+            if (end > MAX_CAPACITY - HEADER) {
+                throw new IllegalStateException("Mapped file is full: " + file);
+            }
+            try {
+                map(Math.min(Math.max(end, 2L * data.capacity()), MAX_CAPACITY - HEADER));
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to grow mapped file: " + file, e);
+            }
+        }
+        return (int) used;
+    }
+
+    public void commit(long end) {
+        mapping.putLong(8, end);
+        metrics.recordBytes(FileStoreMetrics.MAPPED_APPEND, end - used);
+        used = end;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to close mapped file: " + file, e);
+        }
+    }
+
+    private void map(long capacity) throws IOException {
+        mapping = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER + capacity);
+        data = mapping.slice(HEADER, (int) capacity);
+    }
+
+    private boolean blankHeader() {
+        return mapping.getInt(0) == 0 && mapping.getInt(4) == 0 && mapping.getLong(8) == 0;
+    }
+}
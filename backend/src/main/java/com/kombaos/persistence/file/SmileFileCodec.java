@@ -0,0 +1,69 @@
+package com.kombaos.persistence.file;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary JSON (Smile) with the same data model and Jackson configuration as the JSON codec. Property
+ * names are back-referenced and numbers stored in binary, so records take a fraction of the bytes
+ * and of the encoding time. Journal entries are framed with a 4-byte big-endian length.
+ */
+class SmileFileCodec implements FileCodec {
+
+    private final ObjectMapper smileMapper;
+
+    SmileFileCodec(ObjectMapper objectMapper) {
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    @Override
+    public byte[] encode(Iterable<?> records) throws IOException {
+        return smileMapper.writeValueAsBytes(records);
+    }
+
+    @Override
+    public <V> V decode(byte[] bytes, TypeReference<V> type) throws IOException {
+        return smileMapper.readValue(bytes, type);
+    }
+
+    @Override
+    public byte[] frame(JsonNode entry) throws IOException {
+        byte[] smile = smileMapper.writeValueAsBytes(entry);
+        return ByteBuffer.allocate(Integer.BYTES + smile.length).putInt(smile.length).put(smile).array();
+    }
+
+    @Override
+    public Journal readJournal(InputStream in) throws IOException {
+        List<JsonNode> entries = new ArrayList<>();
+        DataInputStream data = new DataInputStream(in);
+        while (true) {
+            int first = data.read();
+            if (first < 0) {
+                return new Journal(entries, false);
+            }
+            try {
+                int length = (first << 24) | (data.readUnsignedByte() << 16) | data.readUnsignedShort();
+                if (length < 0) {
+                    return new Journal(entries, true);
+                }
+                byte[] smile = data.readNBytes(length);
+                if (smile.length < length) {
+                    return new Journal(entries, true);
+                }
+                entries.add(smileMapper.readTree(smile));
+            } catch (EOFException | JacksonException e) {
+                return new Journal(entries, true);
+            }
+        }
+    }
+}
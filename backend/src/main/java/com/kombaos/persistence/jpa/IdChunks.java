@@ -0,0 +1,25 @@
+package com.kombaos.persistence.jpa;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits id lookups into IN lists well below the bind parameter limits of the drivers.
+ */
+public final class IdChunks {
+
+    public static final int SIZE = 1000;
+
+    private IdChunks() {
+    }
+
+    public static <T> List<List<T>> of(Collection<T> ids) {
+        List<T> all = ids.stream().distinct().toList();
+        List<List<T>> chunks = new ArrayList<>((all.size() + SIZE - 1) / SIZE);
+        for (int from = 0; from < all.size(); from += SIZE) {
+            chunks.add(all.subList(from, Math.min(from + SIZE, all.size())));
+        }
+        return chunks;
+    }
+}
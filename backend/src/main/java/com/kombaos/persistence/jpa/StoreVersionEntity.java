@@ -0,0 +1,29 @@
+package com.kombaos.persistence.jpa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "store_versions")
+public class StoreVersionEntity {
+
+    @Id
+    @Column(nullable = false, length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+
+    protected StoreVersionEntity() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
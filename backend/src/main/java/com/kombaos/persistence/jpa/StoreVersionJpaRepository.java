@@ -0,0 +1,18 @@
+package com.kombaos.persistence.jpa;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * One counter row per store, bumped in the same transaction as every mutation of that store.
+ */
+public interface StoreVersionJpaRepository extends JpaRepository<StoreVersionEntity, String> {
+
+    @Modifying
+    @Query("update StoreVersionEntity v set v.version = v.version + 1 where v.name = :name")
+    int bump(String name);
+
+    @Query("select v.version from StoreVersionEntity v where v.name = :name")
+    long current(String name);
+}
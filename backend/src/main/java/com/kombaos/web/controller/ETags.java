@@ -0,0 +1,32 @@
+package com.kombaos.web.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Strong ETags derived from a store version counter. Responses carry {@code Cache-Control: no-cache}
+ * so browsers keep them but revalidate with {@code If-None-Match} on every use.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(String store, long version) {
+        return "\"" + store + "-" + version + "\"";
+    }
+
+    public static boolean notModified(WebRequest request, String etag) {
+        return request.checkNotModified(etag);
+    }
+
+    public static <T> ResponseEntity<T> notModifiedResponse(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    public static ResponseEntity.BodyBuilder ok(String etag) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache());
+    }
+}
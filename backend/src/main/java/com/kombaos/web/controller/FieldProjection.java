@@ -0,0 +1,60 @@
+package com.kombaos.web.controller;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sparse fieldsets for record responses: {@code fields=id,name} keeps only those components.
+ */
+public final class FieldProjection {
+
+    private static final Map<Class<?>, Map<String, RecordComponent>> COMPONENTS = new ConcurrentHashMap<>();
+
+    private FieldProjection() {
+    }
+
+    public static <T extends Record> List<?> select(List<T> responses, String fields, Class<T> type) {
+        if (fields == null || fields.isBlank()) {
+            return responses;
+        }
+        Map<String, RecordComponent> available = COMPONENTS.computeIfAbsent(type, FieldProjection::components);
+        List<RecordComponent> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .distinct()
+                .map(f -> {
+                    RecordComponent component = available.get(f);
+                    if (component == null) {
+                        throw new IllegalArgumentException("Unknown field: " + f + "; expected any of " + available.keySet());
+                    }
+                    return component;
+                })
+                .toList();
+        return responses.stream().map(response -> project(response, selected)).toList();
+    }
+
+    private static Map<String, Object> project(Record response, List<RecordComponent> selected) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (RecordComponent component : selected) {
+            try {
+                projected.put(component.getName(), component.getAccessor().invoke(response));
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot read " + component.getName(), e);
+            }
+        }
+        return projected;
+    }
+
+    private static Map<String, RecordComponent> components(Class<?> type) {
+        Map<String, RecordComponent> components = new LinkedHashMap<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            components.put(component.getName(), component);
+        }
+        return components;
+    }
+}
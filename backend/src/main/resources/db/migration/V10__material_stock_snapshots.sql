@@ -0,0 +1,8 @@
+create table if not exists material_stock_snapshots (
+  material_id varchar(64) not null,
+  as_of timestamp not null,
+  balance numeric(19,6) not null,
+  primary key (material_id, as_of)
+);
+
+create index if not exists idx_material_stock_snapshots_as_of on material_stock_snapshots (as_of);
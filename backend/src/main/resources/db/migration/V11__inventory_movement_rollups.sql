@@ -0,0 +1,10 @@
+create table if not exists inventory_movement_rollups (
+  granularity varchar(10) not null,
+  material_id varchar(64) not null,
+  bucket_start timestamp not null,
+  quantity_in numeric(19,6) not null,
+  quantity_out numeric(19,6) not null,
+  quantity_adjust numeric(19,6) not null,
+  movements bigint not null,
+  primary key (granularity, material_id, bucket_start)
+);
@@ -0,0 +1,10 @@
+create table if not exists material_stock_balances (
+  material_id varchar(64) primary key,
+  balance numeric(19,6) not null,
+  updated_at timestamp not null
+);
+
+insert into material_stock_balances (material_id, balance, updated_at)
+select material_id, sum(case when type = 'OUT' then -quantity else quantity end), current_timestamp
+from inventory_movements
+group by material_id;
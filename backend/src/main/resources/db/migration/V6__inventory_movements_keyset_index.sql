@@ -0,0 +1 @@
+create index if not exists idx_inventory_movements_created_at_id on inventory_movements (created_at, id);
@@ -0,0 +1 @@
+create index if not exists idx_products_created_at_id on products (created_at, id);
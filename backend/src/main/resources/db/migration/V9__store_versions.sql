@@ -0,0 +1,7 @@
+create table if not exists store_versions (
+  name varchar(64) primary key,
+  version bigint not null
+);
+
+insert into store_versions (name, version) values ('products', 0);
+insert into store_versions (name, version) values ('materials', 0);
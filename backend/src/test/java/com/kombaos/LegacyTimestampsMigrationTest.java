@@ -0,0 +1,68 @@
+package com.kombaos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+class LegacyTimestampsMigrationTest {
+
+    private static final String URL = "jdbc:h2:mem:kombaos_legacy_tz;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void convertsRowsWrittenInTheLegacyZoneToUtcAndRebuildsRollups() throws SQLException {
+        flyway("13").migrate();
+        try (Connection connection = DriverManager.getConnection(URL, "sa", ""); Statement statement = connection.createStatement()) {
+            // 21:00 on Saturday 31 January in Bogota is 02:00 on Sunday 1 February in UTC.
+            statement.execute("insert into materials (id, name, unit, created_at) values ('m-1', 'Lana', 'kg', timestamp '2026-01-31 21:00:00')");
+            statement.execute("insert into inventory_movements (id, material_id, type, quantity, reason, created_at) "
+                    + "values ('i-1', 'm-1', 'IN', 5, null, timestamp '2026-01-31 21:00:00')");
+            statement.execute("insert into material_stock_snapshots (material_id, as_of, balance) "
+                    + "values ('m-1', timestamp '2026-01-31 21:00:00', 5), ('m-1', timestamp '2026-02-01 02:00:00', 5)");
+            statement.execute("insert into inventory_movement_rollups (granularity, material_id, bucket_start, quantity_in, quantity_out, quantity_adjust, movements) "
+                    + "values ('DAY', 'm-1', timestamp '2026-01-31 00:00:00', 5, 0, 0, 1)");
+        }
+
+        flyway(null).migrate();
+
+        assertThat(timestamps("select created_at from materials")).containsExactly(at("2026-02-01T02:00"));
+        assertThat(timestamps("select created_at from inventory_movements")).containsExactly(at("2026-02-01T02:00"));
+        assertThat(timestamps("select as_of from material_stock_snapshots order by as_of"))
+                .containsExactly(at("2026-02-01T02:00"), at("2026-02-01T07:00"));
+        assertThat(timestamps("select bucket_start from inventory_movement_rollups order by granularity"))
+                .containsExactly(at("2026-02-01T00:00"), at("2026-02-01T00:00"), at("2026-01-26T00:00"));
+    }
+
+    private static Flyway flyway(String target) {
+        var configuration = Flyway.configure()
+                .dataSource(URL, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .placeholders(Map.of("legacy_time_zone", "America/Bogota"));
+        return (target == null ? configuration : configuration.target(target)).load();
+    }
+
+    private static List<LocalDateTime> timestamps(String query) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(query)) {
+            List<LocalDateTime> found = new ArrayList<>();
+            while (rows.next()) {
+                found.add(rows.getObject(1, LocalDateTime.class));
+            }
+            return found;
+        }
+    }
+
+    private static LocalDateTime at(String value) {
+        return LocalDateTime.parse(value);
+    }
+}
@@ -0,0 +1,109 @@
+package com.kombaos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.material.dto.MaterialCreateRequest;
+import com.kombaos.inventory.material.dto.MaterialResponse;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.dto.InventoryMovementBatchRequest;
+import com.kombaos.inventory.movement.dto.InventoryMovementCreateRequest;
+import com.kombaos.inventory.movement.dto.InventoryMovementResponse;
+import com.kombaos.inventory.movement.dto.MaterialStockResponse;
+import com.zaxxer.hikari.HikariDataSource;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.stereotype.Repository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "kombaos.environment=cloud")
+@ActiveProfiles({"test", "production"})
+class ProductionProfileSmokeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void poolIsTunedAndOpenInViewIsOff() {
+        HikariDataSource pool = (HikariDataSource) dataSource;
+        assertThat(pool.getPoolName()).isEqualTo("kombaos");
+        assertThat(pool.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(pool.isAutoCommit()).isFalse();
+        assertThat(pool.getDataSourceProperties()).containsEntry("reWriteBatchedInserts", "true");
+        assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void writesCommitWithAutocommitDisabled() {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Mohair", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        ResponseEntity<InventoryMovementResponse[]> batch = restTemplate.postForEntity(
+                "/api/inventory/movements:batch",
+                new InventoryMovementBatchRequest(List.of(
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("7"), "Compra"),
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new BigDecimal("2"), "Consumo")
+                )),
+                InventoryMovementResponse[].class
+        );
+        assertThat(batch.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        restTemplate.delete("/api/inventory/movements/" + batch.getBody()[1].id());
+
+        MaterialStockResponse stock = restTemplate.getForObject("/api/materials/" + materialId + "/stock", MaterialStockResponse.class);
+        assertThat(stock.stock()).isEqualByComparingTo("7");
+    }
+
+    @Test
+    void everyJpaStoreMethodRunsInATransaction() {
+        // With autocommit off and provider_disables_autocommit, a store call outside a transaction
+        // would leave Hibernate reading on a connection nobody commits or resets.
+        List<Class<?>> stores = context.getBeansWithAnnotation(Repository.class).values().stream()
+                .<Class<?>>map(AopProxyUtils::ultimateTargetClass)
+                .filter(type -> type.getPackageName().endsWith(".jpa"))
+                .toList();
+        assertThat(stores).isNotEmpty();
+        for (Class<?> store : stores) {
+            assertThat(Arrays.stream(store.getDeclaredMethods()))
+                    .filteredOn(method -> Modifier.isPublic(method.getModifiers()) && !method.isSynthetic())
+                    .allSatisfy(method -> assertThat(method.isAnnotationPresent(Transactional.class))
+                            .as(store.getSimpleName() + "." + method.getName())
+                            .isTrue());
+        }
+    }
+
+    @Test
+    void poolMetricsArePublished() {
+        ResponseEntity<Map> active = restTemplate.getForEntity(
+                "/actuator/metrics/hikaricp.connections.active?tag=pool:kombaos",
+                Map.class
+        );
+        assertThat(active.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ResponseEntity<Map> acquire = restTemplate.getForEntity(
+                "/actuator/metrics/hikaricp.connections.acquire?tag=pool:kombaos",
+                Map.class
+        );
+        assertThat(acquire.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}
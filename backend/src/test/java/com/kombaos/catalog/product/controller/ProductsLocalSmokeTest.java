@@ -1,10 +1,13 @@
 package com.kombaos.catalog.product.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.kombaos.catalog.product.dto.ProductCreateRequest;
 import com.kombaos.catalog.product.dto.ProductResponse;
+import com.kombaos.catalog.product.dto.ProductUpdateRequest;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -13,6 +16,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -64,4 +70,91 @@ class ProductsLocalSmokeTest {
         assertNotNull(fetched.getBody());
         assertEquals("Ruana", fetched.getBody().name());
     }
+
+    @Test
+    void pagesSortsAndProjectsProducts() {
+        TestRestTemplate client = new TestRestTemplate();
+        for (long price : new long[] {300L, 100L, 200L}) {
+            client.postForEntity(
+                    "http://localhost:" + port + "/api/products",
+                    new ProductCreateRequest("Mochila " + price, "Mochila tejida", price, "COP", true),
+                    ProductResponse.class
+            );
+        }
+
+        var firstPage = client.getForEntity(
+                "http://localhost:" + port + "/api/products?page=0&size=2&sort=-priceCents&fields=name,priceCents",
+                java.util.Map[].class
+        );
+        assertEquals(200, firstPage.getStatusCode().value());
+        assertEquals(2, firstPage.getBody().length);
+        assertEquals(java.util.Set.of("name", "priceCents"), firstPage.getBody()[0].keySet());
+        long total = Long.parseLong(firstPage.getHeaders().getFirst("X-Total-Count"));
+        assertTrue(total >= 3);
+
+        var lastPage = client.getForEntity(
+                "http://localhost:" + port + "/api/products?page=" + ((total - 1) / 2) + "&size=2&sort=-priceCents",
+                ProductResponse[].class
+        );
+        assertEquals(100L, lastPage.getBody()[lastPage.getBody().length - 1].priceCents());
+
+        var badSort = client.getForEntity("http://localhost:" + port + "/api/products?sort=description", String.class);
+        assertEquals(400, badSort.getStatusCode().value());
+        var badField = client.getForEntity("http://localhost:" + port + "/api/products?fields=secret", String.class);
+        assertEquals(400, badField.getStatusCode().value());
+    }
+
+    @Test
+    void conditionalGetReturnsNotModifiedUntilCatalogChanges() {
+        TestRestTemplate client = new TestRestTemplate();
+        String url = "http://localhost:" + port + "/api/products";
+        var first = client.getForEntity(url, String.class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+        assertEquals("no-cache", first.getHeaders().getCacheControl());
+
+        var unchanged = client.exchange(url, HttpMethod.GET, new HttpEntity<>(ifNoneMatch(etag)), String.class);
+        assertEquals(304, unchanged.getStatusCode().value());
+
+        client.postForEntity(url, new ProductCreateRequest("Sombrero", "Sombrero vueltiao", 90_000_00L, "COP", true), ProductResponse.class);
+        var changed = client.exchange(url, HttpMethod.GET, new HttpEntity<>(ifNoneMatch(etag)), String.class);
+        assertEquals(200, changed.getStatusCode().value());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void servesCachedResponsesUntilProductChanges() {
+        TestRestTemplate client = new TestRestTemplate();
+        String base = "http://localhost:" + port;
+        var created = client.postForEntity(
+                base + "/api/products",
+                new ProductCreateRequest("Poncho", "Poncho de lana", 80_000_00L, "COP", true),
+                ProductResponse.class
+        ).getBody();
+
+        var first = client.getForEntity(base + "/api/products/" + created.id(), ProductResponse.class);
+        var second = client.getForEntity(base + "/api/products/" + created.id(), ProductResponse.class);
+        assertEquals(first.getBody(), second.getBody());
+        assertEquals("application/json", second.getHeaders().getContentType().toString());
+        var hits = client.getForEntity(base + "/actuator/metrics/kombaos.product.cache.requests?tag=result:hit", String.class);
+        assertEquals(200, hits.getStatusCode().value());
+
+        client.put(
+                base + "/api/products/" + created.id(),
+                new ProductUpdateRequest("Poncho largo", "Poncho de lana", 85_000_00L, "COP", true)
+        );
+        var updated = client.getForEntity(base + "/api/products/" + created.id(), ProductResponse.class);
+        assertEquals("Poncho largo", updated.getBody().name());
+        var catalog = client.getForEntity(base + "/api/products", ProductResponse[].class);
+        assertTrue(java.util.Arrays.stream(catalog.getBody()).anyMatch(p -> "Poncho largo".equals(p.name())));
+
+        var missing = client.getForEntity(base + "/api/products/missing", String.class);
+        assertEquals(404, missing.getStatusCode().value());
+    }
+
+    private static HttpHeaders ifNoneMatch(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        return headers;
+    }
 }
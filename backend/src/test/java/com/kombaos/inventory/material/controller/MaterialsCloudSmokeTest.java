@@ -0,0 +1,105 @@
+package com.kombaos.inventory.material.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.kombaos.inventory.material.dto.MaterialCreateRequest;
+import com.kombaos.inventory.material.dto.MaterialResponse;
+import com.kombaos.inventory.material.dto.MaterialUpdateRequest;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "kombaos.environment=cloud")
+@ActiveProfiles("test")
+class MaterialsCloudSmokeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void filtersAreAppliedInTheDatabase() {
+        restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Hilo 100%_fino", "m", "Taller Norte", "CO", true, null, null),
+                MaterialResponse.class
+        );
+        restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Hilo grueso", "m", "Taller Norte", "PE", false, null, null),
+                MaterialResponse.class
+        );
+        restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Hilo 100 fino", "m", "Taller Sur", "CO", true, null, null),
+                MaterialResponse.class
+        );
+        // Stored values are compared as lower(column), untrimmed, exactly like the local index does.
+        restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Hilo suelto", "m", " Taller Norte ", "CO", true, null, null),
+                MaterialResponse.class
+        );
+
+        var combined = restTemplate.getForEntity(
+                "/api/materials?q=HILO&supplier=taller norte&origin=co&certified=true",
+                MaterialResponse[].class
+        );
+        assertEquals(200, combined.getStatusCode().value());
+        assertEquals(1, combined.getBody().length);
+        assertEquals("Hilo 100%_fino", combined.getBody()[0].name());
+
+        var wildcards = restTemplate.getForEntity("/api/materials?q={q}", MaterialResponse[].class, "100%_");
+        assertEquals(1, wildcards.getBody().length);
+
+        var bySupplier = restTemplate.getForEntity("/api/materials?supplier=TALLER NORTE", MaterialResponse[].class);
+        assertEquals(
+                java.util.List.of("Hilo 100%_fino", "Hilo grueso"),
+                Arrays.stream(bySupplier.getBody()).map(MaterialResponse::name).toList()
+        );
+    }
+
+    @Test
+    void pagesFilteredMaterialsWithLimitOffset() {
+        for (String name : new String[] {"Tinte azul", "Tinte rojo", "Tinte verde"}) {
+            restTemplate.postForEntity(
+                    "/api/materials",
+                    new MaterialCreateRequest(name, "l", "Tintes Andinos", null, false, null, null),
+                    MaterialResponse.class
+            );
+        }
+
+        var page = restTemplate.getForEntity(
+                "/api/materials?supplier=tintes andinos&page=1&size=2&sort=name,desc&fields=id,name",
+                java.util.Map[].class
+        );
+        assertEquals(200, page.getStatusCode().value());
+        assertEquals("3", page.getHeaders().getFirst("X-Total-Count"));
+        assertEquals(1, page.getBody().length);
+        assertEquals(java.util.Map.of("id", page.getBody()[0].get("id"), "name", "Tinte azul"), page.getBody()[0]);
+    }
+
+    @Test
+    void conditionalGetFollowsTheStoreVersion() {
+        var created = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Cuero", "m2", null, null, false, null, null),
+                MaterialResponse.class
+        );
+        String url = "/api/materials/" + created.getBody().id();
+        String etag = restTemplate.getForEntity(url, MaterialResponse.class).getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        assertEquals(304, restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class).getStatusCode().value());
+
+        restTemplate.put(url, new MaterialUpdateRequest("Cuero curtido", "m2", null, null, false, null, null));
+        assertEquals(200, restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class).getStatusCode().value());
+    }
+}
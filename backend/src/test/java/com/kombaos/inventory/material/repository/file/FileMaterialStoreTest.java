@@ -7,7 +7,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.kombaos.config.KombaosProperties;
 import com.kombaos.inventory.material.domain.Material;
+import com.kombaos.inventory.material.domain.MaterialFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -20,10 +25,10 @@ class FileMaterialStoreTest {
         props.setEnvironment("local");
         props.setLocalStorageDir(tempDir.toString());
 
-        FileMaterialStore store1 = new FileMaterialStore(mapper, props);
+        FileMaterialStore store1 = new FileMaterialStore(mapper, props, new SimpleMeterRegistry());
         Material created = store1.create("Algodón", "kg", "Proveedor", "CO", true, 2500L, "COP");
 
-        FileMaterialStore store2 = new FileMaterialStore(mapper, props);
+        FileMaterialStore store2 = new FileMaterialStore(mapper, props, new SimpleMeterRegistry());
         var all = store2.list();
 
         assertEquals(1, all.size());
@@ -31,4 +36,66 @@ class FileMaterialStoreTest {
         assertEquals("Algodón", all.getFirst().name());
         assertTrue(tempDir.resolve("materials.json").toFile().exists());
     }
+
+    @Test
+    void searchIntersectsIndexedFiltersAndFollowsUpdates(@TempDir Path tempDir) {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        KombaosProperties props = new KombaosProperties();
+        props.setEnvironment("local");
+        props.setLocalStorageDir(tempDir.toString());
+        FileMaterialStore store = new FileMaterialStore(mapper, props, new SimpleMeterRegistry());
+
+        Material fique = store.create("Fique natural", "kg", "Cooperativa", "Boyacá", true, null, null);
+        Material lana = store.create("Lana merino", "kg", "cooperativa", "Nariño", false, null, null);
+        store.create("Fique teñido", "kg", "Otro", "Boyacá", false, null, null);
+
+        assertEquals(List.of(fique), store.search(MaterialFilter.of("FIQUE", "Cooperativa", null, null)));
+        assertEquals(List.of(lana), store.search(MaterialFilter.of("n", "COOPERATIVA", null, false)));
+        assertEquals(2, store.search(MaterialFilter.of("ique", null, "boyacá", null)).size());
+        assertTrue(store.search(MaterialFilter.of("fique merino", null, null, null)).isEmpty());
+
+        store.update(lana.id(), "Lana de alpaca", "kg", "Cooperativa", "Nariño", true, null, null);
+        assertTrue(store.search(MaterialFilter.of("merino", null, null, null)).isEmpty());
+        assertEquals(1, store.search(MaterialFilter.of("alpaca", null, null, true)).size());
+
+        store.delete(fique.id());
+        assertEquals(1, store.search(MaterialFilter.of(null, "cooperativa", null, null)).size());
+    }
+
+    @Test
+    void storedValuesAreFoldedLikeLowerColumnWithoutTrimming(@TempDir Path tempDir) {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        KombaosProperties props = new KombaosProperties();
+        props.setEnvironment("local");
+        props.setLocalStorageDir(tempDir.toString());
+        FileMaterialStore store = new FileMaterialStore(mapper, props, new SimpleMeterRegistry());
+
+        store.create("Hilo", "kg", " Taller Norte ", "CO", false, null, null);
+        Material exact = store.create("Hilo", "kg", "Taller Norte", "CO", false, null, null);
+
+        MaterialFilter filter = MaterialFilter.of(null, " TALLER NORTE ", null, null);
+        assertEquals(List.of(exact), store.search(filter));
+        assertEquals(List.of(exact), store.list().stream().filter(filter::matches).toList());
+    }
+
+    @Test
+    void searchIndexCompactsOnceDeletedSlotsOutnumberLiveOnes() {
+        MaterialSearchIndex index = new MaterialSearchIndex();
+        Instant start = Instant.parse("2026-01-01T00:00:00Z");
+        List<Material> created = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Material material = new Material("m-" + i, "Fique " + i, "kg", "Cooperativa", "Boyacá", i % 2 == 0, null, null, start.plusSeconds(i));
+            created.add(material);
+            index.onPut(null, material);
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            index.onRemove(created.get(i));
+        }
+
+        assertTrue(index.slots() < 3000);
+        List<Material> remaining = index.search(MaterialFilter.of("fique", "cooperativa", null, null));
+        assertEquals(created.subList(2000, 3000), remaining);
+        assertEquals(500, index.search(MaterialFilter.of(null, null, null, true)).size());
+    }
 }
@@ -0,0 +1,419 @@
+package com.kombaos.inventory.movement.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.material.dto.MaterialCreateRequest;
+import com.kombaos.inventory.material.dto.MaterialResponse;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.dto.InventoryMovementBatchRequest;
+import com.kombaos.inventory.movement.dto.InventoryMovementCreateRequest;
+import com.kombaos.inventory.movement.dto.InventoryMovementResponse;
+import com.kombaos.inventory.movement.dto.MaterialStockResponse;
+import com.kombaos.inventory.movement.dto.MovementRollupResponse;
+import com.kombaos.inventory.movement.dto.StockDriftResponse;
+import com.kombaos.inventory.movement.repository.jpa.MaterialStockSnapshotJpaRepository;
+import com.kombaos.inventory.movement.service.InventoryMovementService;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "kombaos.environment=cloud")
+@ActiveProfiles("test")
+class InventoryMovementsCloudSmokeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private InventoryMovementService movementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MaterialStockSnapshotJpaRepository snapshotRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void stockFollowsMovementsAndSurvivesRebuild() {
+        ResponseEntity<MaterialResponse> createdMaterial = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Fique", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        );
+        assertThat(createdMaterial.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        String materialId = createdMaterial.getBody().id();
+
+        restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("8"), "Compra"),
+                InventoryMovementResponse.class
+        );
+        ResponseEntity<InventoryMovementResponse> out = restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new BigDecimal("3"), "Consumo"),
+                InventoryMovementResponse.class
+        );
+        assertThat(out.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(stock(materialId)).isEqualByComparingTo("5");
+
+        restTemplate.delete("/api/inventory/movements/" + out.getBody().id());
+        assertThat(stock(materialId)).isEqualByComparingTo("8");
+
+        ResponseEntity<Void> rebuilt = restTemplate.postForEntity("/api/inventory/stock/rebuild", null, Void.class);
+        assertThat(rebuilt.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(stock(materialId)).isEqualByComparingTo("8");
+    }
+
+    @Test
+    void stockCheckReportsDriftFromTheLedgerUntilRebuilt() {
+        ResponseEntity<MaterialResponse> createdMaterial = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Cáñamo", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        );
+        String materialId = createdMaterial.getBody().id();
+        restTemplate.postForEntity(
+                "/api/inventory/movements:batch",
+                new InventoryMovementBatchRequest(java.util.List.of(
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("6"), "Compra"),
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new BigDecimal("2"), "Consumo")
+                )),
+                InventoryMovementResponse[].class
+        );
+        String check = "/api/inventory/stock/check?materialId=" + materialId;
+        assertThat(restTemplate.getForEntity(check, StockDriftResponse[].class).getBody()).isEmpty();
+
+        jdbcTemplate.update("update material_stock_balances set balance = 9 where material_id = ?", materialId);
+        ResponseEntity<StockDriftResponse[]> drifted = restTemplate.getForEntity(check, StockDriftResponse[].class);
+        assertThat(drifted.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(drifted.getBody()).hasSize(1);
+        assertThat(drifted.getBody()[0].balance()).isEqualByComparingTo("9");
+        assertThat(drifted.getBody()[0].ledger()).isEqualByComparingTo("4");
+
+        restTemplate.postForEntity("/api/inventory/stock/rebuild", null, Void.class);
+        assertThat(restTemplate.getForEntity(check, StockDriftResponse[].class).getBody()).isEmpty();
+        assertThat(stock(materialId)).isEqualByComparingTo("4");
+    }
+
+    private BigDecimal stock(String materialId) {
+        ResponseEntity<MaterialStockResponse> stock = restTemplate.getForEntity(
+                "/api/materials/" + materialId + "/stock",
+                MaterialStockResponse.class
+        );
+        assertThat(stock.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return stock.getBody().stock();
+    }
+
+    @Test
+    void pagesThroughMovementsWithCursor() {
+        ResponseEntity<MaterialResponse> createdMaterial = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Seda", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        );
+        String materialId = createdMaterial.getBody().id();
+        for (int i = 1; i <= 5; i++) {
+            restTemplate.postForEntity(
+                    "/api/inventory/movements",
+                    new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new java.math.BigDecimal(i), "Lote " + i),
+                    InventoryMovementResponse.class
+            );
+        }
+
+        java.util.List<String> reasons = new java.util.ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            String url = "/api/inventory/movements?materialId=" + materialId + "&limit=2" + (after == null ? "" : "&after=" + after);
+            ResponseEntity<InventoryMovementResponse[]> page = restTemplate.getForEntity(url, InventoryMovementResponse[].class);
+            assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK);
+            java.util.Arrays.stream(page.getBody()).forEach(m -> reasons.add(m.reason()));
+            after = page.getHeaders().getFirst("X-Next-Cursor");
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(reasons).containsExactly("Lote 1", "Lote 2", "Lote 3", "Lote 4", "Lote 5");
+    }
+
+    @Test
+    void exportsLedgerAsNdjson() {
+        ResponseEntity<MaterialResponse> createdMaterial = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Alpaca", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        );
+        String materialId = createdMaterial.getBody().id();
+        restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new java.math.BigDecimal("4"), "Compra"),
+                InventoryMovementResponse.class
+        );
+        restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new java.math.BigDecimal("1"), "Consumo"),
+                InventoryMovementResponse.class
+        );
+
+        ResponseEntity<String> export = restTemplate.getForEntity(
+                "/api/inventory/movements/export?materialId=" + materialId,
+                String.class
+        );
+        assertThat(export.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(export.getHeaders().getContentType().toString()).startsWith("application/x-ndjson");
+        String[] lines = export.getBody().strip().split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"reason\":\"Compra\"");
+        assertThat(lines[1]).contains("\"reason\":\"Consumo\"");
+    }
+
+    @Test
+    void batchIsValidatedAgainstRunningBalanceAndInsertedAtOnce() {
+        ResponseEntity<MaterialResponse> createdMaterial = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Hilo", "m", null, null, null, null, null),
+                MaterialResponse.class
+        );
+        String materialId = createdMaterial.getBody().id();
+
+        ResponseEntity<Map> rejected = restTemplate.postForEntity(
+                "/api/inventory/movements:batch",
+                new InventoryMovementBatchRequest(java.util.List.of(
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new java.math.BigDecimal("2"), "Compra"),
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new java.math.BigDecimal("3"), "Consumo")
+                )),
+                Map.class
+        );
+        assertThat(rejected.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        ResponseEntity<InventoryMovementResponse[]> created = restTemplate.postForEntity(
+                "/api/inventory/movements:batch",
+                new InventoryMovementBatchRequest(java.util.List.of(
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new java.math.BigDecimal("5"), "Compra"),
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new java.math.BigDecimal("3"), "Consumo")
+                )),
+                InventoryMovementResponse[].class
+        );
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(created.getBody()).hasSize(2);
+
+        ResponseEntity<MaterialStockResponse> stock = restTemplate.getForEntity(
+                "/api/materials/" + materialId + "/stock",
+                MaterialStockResponse.class
+        );
+        assertThat(stock.getBody().stock()).isEqualByComparingTo("2");
+    }
+
+    @Test
+    void concurrentOutMovementsNeverDriveStockNegative() throws Exception {
+        ResponseEntity<MaterialResponse> createdMaterial = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Lino", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        );
+        String materialId = createdMaterial.getBody().id();
+        restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("10"), "Compra"),
+                InventoryMovementResponse.class
+        );
+
+        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(8);
+        try {
+            java.util.List<java.util.concurrent.Future<HttpStatus>> results = new java.util.ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                results.add(executor.submit(() -> HttpStatus.valueOf(restTemplate.postForEntity(
+                        "/api/inventory/movements",
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, BigDecimal.ONE, "Consumo"),
+                        Map.class
+                ).getStatusCode().value())));
+            }
+            int created = 0;
+            for (java.util.concurrent.Future<HttpStatus> result : results) {
+                if (result.get() == HttpStatus.CREATED) {
+                    created++;
+                }
+            }
+            assertThat(created).isEqualTo(10);
+        } finally {
+            executor.shutdown();
+        }
+
+        ResponseEntity<MaterialStockResponse> stock = restTemplate.getForEntity(
+                "/api/materials/" + materialId + "/stock",
+                MaterialStockResponse.class
+        );
+        assertThat(stock.getBody().stock()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    void answersStockAsOfFromSnapshotAndTail() {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Yute", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        Instant before = Instant.now();
+        InventoryMovementResponse in = restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("10"), "Compra"),
+                InventoryMovementResponse.class
+        ).getBody();
+        InventoryMovementResponse out = restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new BigDecimal("3"), "Consumo"),
+                InventoryMovementResponse.class
+        ).getBody();
+
+        Instant snapshotAt = Instant.now();
+        movementService.snapshotStock(snapshotAt);
+        restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("5"), "Compra"),
+                InventoryMovementResponse.class
+        );
+
+        assertThat(stockAt(materialId, before)).isEqualByComparingTo("0");
+        assertThat(stockAt(materialId, in.createdAt())).isEqualByComparingTo("10");
+        assertThat(stockAt(materialId, out.createdAt())).isEqualByComparingTo("7");
+        assertThat(stockAt(materialId, snapshotAt)).isEqualByComparingTo("7");
+        assertThat(stockAt(materialId, Instant.now())).isEqualByComparingTo("12");
+
+        restTemplate.delete("/api/inventory/movements/" + out.id());
+        assertThat(stockAt(materialId, snapshotAt)).isEqualByComparingTo("10");
+        assertThat(stockAt(materialId, Instant.now())).isEqualByComparingTo("15");
+
+        ResponseEntity<Map> invalid = restTemplate.getForEntity("/api/materials/" + materialId + "/stock?asOf=yesterday", Map.class);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void overlappingSnapshotRunsDoNotFoldEachOther() {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Sisal", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        move(materialId, "5");
+        Instant since = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        movementService.snapshotStock(since);
+        move(materialId, "3");
+        movementService.snapshotStock(Instant.now());
+        move(materialId, "2");
+
+        // A second run that read the same latest snapshot before the first one committed.
+        Instant asOf = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        transactionTemplate.executeWithoutResult(status -> snapshotRepository.insertSince(since, asOf));
+
+        assertThat(stockAt(materialId, asOf)).isEqualByComparingTo("10");
+    }
+
+    private void move(String materialId, String quantity) {
+        ResponseEntity<InventoryMovementResponse> created = restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal(quantity), "Compra"),
+                InventoryMovementResponse.class
+        );
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    private BigDecimal stockAt(String materialId, Instant asOf) {
+        ResponseEntity<MaterialStockResponse> stock = restTemplate.getForEntity(
+                "/api/materials/{id}/stock?asOf={asOf}",
+                MaterialStockResponse.class,
+                materialId,
+                asOf.toString()
+        );
+        assertThat(stock.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return stock.getBody().stock();
+    }
+
+    @Test
+    void rollsUpMovementsIntoBucketsAndRangeTotals() {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Totora", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        restTemplate.postForEntity(
+                "/api/inventory/movements:batch",
+                new InventoryMovementBatchRequest(java.util.List.of(
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("10"), "Compra"),
+                        new InventoryMovementCreateRequest(materialId, InventoryMovementType.ADJUST, new BigDecimal("-1"), "Conteo")
+                )),
+                InventoryMovementResponse[].class
+        );
+        InventoryMovementResponse out = restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.OUT, new BigDecimal("3"), "Consumo"),
+                InventoryMovementResponse.class
+        ).getBody();
+        Instant today = out.createdAt().truncatedTo(ChronoUnit.DAYS);
+
+        MovementRollupResponse[] days = restTemplate.getForEntity(
+                "/api/inventory/rollups?granularity=DAY&from={from}&to={to}&materialId={id}",
+                MovementRollupResponse[].class,
+                today.toString(),
+                today.plus(Duration.ofDays(1)).toString(),
+                materialId
+        ).getBody();
+        assertThat(days).hasSize(1);
+        assertThat(days[0].from()).isEqualTo(today);
+        assertThat(days[0].in()).isEqualByComparingTo("10");
+        assertThat(days[0].out()).isEqualByComparingTo("3");
+        assertThat(days[0].adjust()).isEqualByComparingTo("-1");
+        assertThat(days[0].movements()).isEqualTo(3);
+
+        Instant from = out.createdAt().minus(Duration.ofDays(70));
+        Instant to = out.createdAt().plusSeconds(60);
+        assertThat(totals(materialId, from, to).movements()).isEqualTo(3);
+        assertThat(totals(materialId, out.createdAt(), to).out()).isEqualByComparingTo("3");
+
+        restTemplate.delete("/api/inventory/movements/" + out.id());
+        MovementRollupResponse afterDelete = totals(materialId, from, to);
+        assertThat(afterDelete.out()).isEqualByComparingTo("0");
+        assertThat(afterDelete.movements()).isEqualTo(2);
+
+        restTemplate.postForEntity("/api/inventory/stock/rebuild", null, Void.class);
+        MovementRollupResponse rebuilt = totals(materialId, from, to);
+        assertThat(rebuilt.in()).isEqualByComparingTo("10");
+        assertThat(rebuilt.adjust()).isEqualByComparingTo("-1");
+        assertThat(rebuilt.movements()).isEqualTo(2);
+
+        ResponseEntity<Map> inverted = restTemplate.getForEntity(
+                "/api/inventory/rollups/totals?from={from}&to={to}",
+                Map.class,
+                to.toString(),
+                from.toString()
+        );
+        assertThat(inverted.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private MovementRollupResponse totals(String materialId, Instant from, Instant to) {
+        ResponseEntity<MovementRollupResponse[]> totals = restTemplate.getForEntity(
+                "/api/inventory/rollups/totals?from={from}&to={to}&materialId={id}",
+                MovementRollupResponse[].class,
+                from.toString(),
+                to.toString(),
+                materialId
+        );
+        assertThat(totals.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(totals.getBody()).hasSize(1);
+        return totals.getBody()[0];
+    }
+}
@@ -0,0 +1,56 @@
+package com.kombaos.inventory.movement.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.material.dto.MaterialCreateRequest;
+import com.kombaos.inventory.material.dto.MaterialResponse;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.dto.InventoryMovementCreateRequest;
+import com.kombaos.inventory.movement.dto.InventoryMovementResponse;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs the local movement scenarios against the memory-mapped ledger engine. It shares the storage
+ * directory with the JSON engine tests, so its first start also imports whatever they left there.
+ */
+class InventoryMovementsMappedSmokeTest extends InventoryMovementsLocalSmokeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @DynamicPropertySource
+    static void mappedProps(DynamicPropertyRegistry registry) {
+        registry.add("kombaos.local-ledger-engine", () -> "mapped");
+    }
+
+    @Test
+    @Override
+    void storeAndFileMetricsArePublished() {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Yute", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, BigDecimal.ONE, "Compra"),
+                InventoryMovementResponse.class
+        );
+
+        ResponseEntity<Map> appendedBytes = restTemplate.getForEntity(
+                "/actuator/metrics/kombaos.file.store.bytes?tag=store:inventory_ledger&tag=op:mapped.append",
+                Map.class
+        );
+        assertThat(appendedBytes.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(Files.exists(tempDir.resolve("inventory_ledger.dat"))).isTrue();
+    }
+}
@@ -0,0 +1,114 @@
+package com.kombaos.inventory.movement.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.material.dto.MaterialCreateRequest;
+import com.kombaos.inventory.material.dto.MaterialResponse;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.dto.InventoryMovementCreateRequest;
+import com.kombaos.inventory.movement.dto.InventoryMovementResponse;
+import com.kombaos.inventory.movement.dto.MovementRollupResponse;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.TimeZone;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Rollup buckets are UTC days whatever the zone of the JVM, both when movements are written and
+ * when the buckets are rebuilt from the ledger.
+ */
+@SpringBootTest(
+        webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = {
+                "kombaos.environment=cloud",
+                "spring.datasource.url=jdbc:h2:mem:kombaos_tz_test;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+        }
+)
+@ActiveProfiles("test")
+@DirtiesContext
+class InventoryRollupsTimeZoneTest {
+
+    private static final TimeZone DEFAULT_ZONE = TimeZone.getDefault();
+
+    static {
+        // Five hours behind UTC, so a local-time truncation lands on a different bucket start.
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Bogota"));
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @AfterAll
+    static void restoreZone() {
+        TimeZone.setDefault(DEFAULT_ZONE);
+    }
+
+    @Test
+    void rebuildKeepsUtcDayBuckets() {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Paja toquilla", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        InventoryMovementResponse first = move(materialId, InventoryMovementType.IN, "10");
+        Instant day = RollupGranularity.DAY.floor(first.createdAt());
+        assertThat(days(materialId, day)).singleElement().satisfies(bucket -> assertThat(bucket.from()).isEqualTo(day));
+
+        restTemplate.postForEntity("/api/inventory/stock/rebuild", null, Void.class);
+        assertThat(days(materialId, day)).singleElement().satisfies(bucket -> {
+            assertThat(bucket.from()).isEqualTo(day);
+            assertThat(bucket.movements()).isEqualTo(1);
+        });
+        MovementRollupResponse[] months = rollups("MONTH", materialId, day);
+        assertThat(months).singleElement().satisfies(bucket -> assertThat(bucket.from()).isEqualTo(RollupGranularity.MONTH.floor(day)));
+
+        move(materialId, InventoryMovementType.OUT, "4");
+        restTemplate.delete("/api/inventory/movements/" + first.id());
+        assertThat(days(materialId, day)).singleElement().satisfies(bucket -> {
+            assertThat(bucket.from()).isEqualTo(day);
+            assertThat(bucket.in()).isEqualByComparingTo("0");
+            assertThat(bucket.out()).isEqualByComparingTo("4");
+            assertThat(bucket.movements()).isEqualTo(1);
+        });
+    }
+
+    private InventoryMovementResponse move(String materialId, InventoryMovementType type, String quantity) {
+        ResponseEntity<InventoryMovementResponse> created = restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, type, new BigDecimal(quantity), "Prueba"),
+                InventoryMovementResponse.class
+        );
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return created.getBody();
+    }
+
+    private MovementRollupResponse[] days(String materialId, Instant day) {
+        return rollups("DAY", materialId, day);
+    }
+
+    // Looks a month either side, so a bucket shifted by the zone offset still shows up.
+    private MovementRollupResponse[] rollups(String granularity, String materialId, Instant day) {
+        Instant from = RollupGranularity.MONTH.floor(RollupGranularity.MONTH.floor(day).minusSeconds(1));
+        Instant to = RollupGranularity.MONTH.next(RollupGranularity.MONTH.floor(day));
+        ResponseEntity<MovementRollupResponse[]> rollups = restTemplate.getForEntity(
+                "/api/inventory/rollups?granularity={granularity}&from={from}&to={to}&materialId={id}",
+                MovementRollupResponse[].class,
+                granularity,
+                from.toString(),
+                to.toString(),
+                materialId
+        );
+        assertThat(rollups.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return rollups.getBody();
+    }
+}
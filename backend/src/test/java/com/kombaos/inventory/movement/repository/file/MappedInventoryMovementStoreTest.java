@@ -0,0 +1,177 @@
+package com.kombaos.inventory.movement.repository.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kombaos.config.KombaosProperties;
+import com.kombaos.inventory.movement.domain.InventoryMovement;
+import com.kombaos.inventory.movement.domain.InventoryMovementCursor;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.domain.MovementRollup;
+import com.kombaos.inventory.movement.domain.NewInventoryMovement;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedInventoryMovementStoreTest {
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void keepsLedgerAcrossRestartsAndGrowsTheMapping(@TempDir Path tempDir) {
+        KombaosProperties props = props(tempDir);
+        MappedInventoryMovementStore store = new MappedInventoryMovementStore(mapper, props, new SimpleMeterRegistry(), 256);
+        InventoryMovement first = store.create("lana", InventoryMovementType.IN, new BigDecimal("10.5"), "Compra");
+        List<InventoryMovement> batch = store.createAll(IntStream.range(0, 40)
+                .mapToObj(i -> new NewInventoryMovement(i % 2 == 0 ? "lana" : "fique", InventoryMovementType.IN, BigDecimal.ONE, null))
+                .toList());
+        store.create("lana", InventoryMovementType.OUT, new BigDecimal("0.25"), "Venta");
+        store.delete(batch.getFirst().id());
+        store.close();
+
+        MappedInventoryMovementStore reopened = new MappedInventoryMovementStore(mapper, props, new SimpleMeterRegistry(), 256);
+        assertEquals(new BigDecimal("29.25"), reopened.getBalance("lana"));
+        assertEquals(new BigDecimal("20"), reopened.getBalance("fique"));
+        assertEquals(BigDecimal.ZERO, reopened.getBalance("desconocido"));
+        assertEquals(Optional.of(first), reopened.getById(first.id()));
+        assertEquals(Optional.empty(), reopened.getById(batch.getFirst().id()));
+        assertEquals(Map.of("lana", 21L, "fique", 20L), reopened.countByMaterial());
+        assertThrows(NoSuchElementException.class, () -> reopened.delete(batch.getFirst().id()));
+
+        List<InventoryMovement> all = reopened.list(Optional.empty());
+        assertEquals(41, all.size());
+        assertEquals(all.stream().sorted((a, b) -> InventoryMovementCursor.of(a).compareTo(InventoryMovementCursor.of(b))).toList(), all);
+
+        List<InventoryMovement> paged = new ArrayList<>();
+        Optional<InventoryMovementCursor> cursor = Optional.empty();
+        List<InventoryMovement> page;
+        do {
+            page = reopened.page(Optional.of("lana"), cursor, 7);
+            paged.addAll(page);
+            cursor = page.isEmpty() ? cursor : Optional.of(InventoryMovementCursor.of(page.getLast()));
+        } while (!page.isEmpty());
+        assertEquals(reopened.list(Optional.of("lana")), paged);
+
+        List<InventoryMovement> exported = new ArrayList<>();
+        reopened.forEach(Optional.of("fique"), exported::add);
+        assertEquals(reopened.list(Optional.of("fique")), exported);
+    }
+
+    @Test
+    void sumsAndTotalsReadTheMappedRecords(@TempDir Path tempDir) {
+        MappedInventoryMovementStore store = new MappedInventoryMovementStore(mapper, props(tempDir), new SimpleMeterRegistry(), 256);
+        InventoryMovement in = store.create("lana", InventoryMovementType.IN, new BigDecimal("8"), null);
+        InventoryMovement out = store.create("lana", InventoryMovementType.OUT, new BigDecimal("3"), null);
+        store.create("lana", InventoryMovementType.ADJUST, new BigDecimal("-0.5"), null);
+
+        assertEquals(new BigDecimal("8"), store.sumMovements("lana", Optional.empty(), in.createdAt()));
+        assertEquals(new BigDecimal("-3.5"), store.sumMovements("lana", Optional.of(in.createdAt()), Instant.now()));
+
+        MovementRollup totals = store.aggregate(Optional.of("lana"), in.createdAt(), out.createdAt().plusNanos(1)).getFirst();
+        assertEquals(new MovementRollup("lana", in.createdAt(), out.createdAt().plusNanos(1), new BigDecimal("8"), new BigDecimal("3"), BigDecimal.ZERO, 2), totals);
+        assertTrue(store.aggregate(Optional.of("fique"), in.createdAt(), Instant.now()).isEmpty());
+
+        assertEquals(1, store.snapshotBalances(Instant.now()));
+        assertThrows(IllegalArgumentException.class, () -> store.create("lana", InventoryMovementType.IN, new BigDecimal("0.0000001"), null));
+        assertEquals(new BigDecimal("4.5"), store.getBalance("lana"));
+    }
+
+    @Test
+    void runningBalancesMatchAFullScanOfTheLedger(@TempDir Path tempDir) {
+        MappedInventoryMovementStore store = new MappedInventoryMovementStore(mapper, props(tempDir), new SimpleMeterRegistry(), 256);
+        store.create("lana", InventoryMovementType.IN, new BigDecimal("8"), null);
+        InventoryMovement out = store.create("lana", InventoryMovementType.OUT, new BigDecimal("3"), null);
+        store.create("fique", InventoryMovementType.ADJUST, new BigDecimal("-0.5"), null);
+        store.delete(out.id());
+
+        List<String> materialIds = List.of("lana", "fique", "desconocido");
+        Map<String, BigDecimal> expected = Map.of("lana", new BigDecimal("8"), "fique", new BigDecimal("-0.5"), "desconocido", BigDecimal.ZERO);
+        assertEquals(expected, store.getBalances(materialIds));
+        assertEquals(expected, store.ledgerBalances(materialIds));
+
+        store.rebuildBalances();
+        assertEquals(expected, store.getBalances(materialIds));
+    }
+
+    @Test
+    void importsTheJsonLedgerOnFirstStart(@TempDir Path tempDir) {
+        KombaosProperties props = props(tempDir);
+        FileInventoryMovementStore json = new FileInventoryMovementStore(mapper, props, new SimpleMeterRegistry());
+        json.createAll(List.of(
+                new NewInventoryMovement("lana", InventoryMovementType.IN, new BigDecimal("5"), "Compra"),
+                new NewInventoryMovement("lana", InventoryMovementType.OUT, new BigDecimal("2"), null)
+        ));
+        json.create("fique", InventoryMovementType.IN, new BigDecimal("1.125"), null);
+
+        MappedInventoryMovementStore mapped = new MappedInventoryMovementStore(mapper, props, new SimpleMeterRegistry(), 256);
+        assertEquals(json.list(Optional.empty()), mapped.list(Optional.empty()));
+        assertEquals(new BigDecimal("3"), mapped.getBalance("lana"));
+        mapped.create("lana", InventoryMovementType.IN, BigDecimal.ONE, null);
+        mapped.close();
+
+        MappedInventoryMovementStore restarted = new MappedInventoryMovementStore(mapper, props, new SimpleMeterRegistry(), 256);
+        assertEquals(4, restarted.list(Optional.empty()).size());
+    }
+
+    @Test
+    void importLeavesTheJsonLedgerUntouched(@TempDir Path tempDir) throws IOException {
+        KombaosProperties props = props(tempDir);
+        props.setLocalStorageJournal(true);
+        FileInventoryMovementStore json = new FileInventoryMovementStore(mapper, props, new SimpleMeterRegistry());
+        json.create("lana", InventoryMovementType.IN, new BigDecimal("5"), null);
+        json.create("lana", InventoryMovementType.OUT, new BigDecimal("2"), null);
+        Path snapshot = tempDir.resolve("inventory_movements.json");
+        Path journal = tempDir.resolve("inventory_movements.json.journal");
+        byte[] snapshotBefore = Files.readAllBytes(snapshot);
+        byte[] journalBefore = Files.readAllBytes(journal);
+
+        MappedInventoryMovementStore mapped = new MappedInventoryMovementStore(mapper, props, new SimpleMeterRegistry(), 256);
+
+        assertEquals(new BigDecimal("3"), mapped.getBalance("lana"));
+        assertArrayEquals(snapshotBefore, Files.readAllBytes(snapshot));
+        assertArrayEquals(journalBefore, Files.readAllBytes(journal));
+    }
+
+    @Test
+    void importInterruptedByACrashRunsAgainOnNextStart(@TempDir Path tempDir) throws IOException {
+        KombaosProperties props = props(tempDir);
+        FileInventoryMovementStore json = new FileInventoryMovementStore(mapper, props, new SimpleMeterRegistry());
+        json.create("lana", InventoryMovementType.IN, new BigDecimal("5"), null);
+        json.create("fique", InventoryMovementType.IN, new BigDecimal("2"), null);
+        // A crash left a half-built staging ledger, a moved dictionary and a records file without its header.
+        Path staging = Files.createDirectories(tempDir.resolve("inventory_ledger.import"));
+        Files.writeString(staging.resolve("inventory_ledger.materials"), "lana\n");
+        Files.writeString(tempDir.resolve("inventory_ledger.materials"), "lana\n");
+        Files.write(tempDir.resolve("inventory_ledger.dat"), new byte[6]);
+
+        MappedInventoryMovementStore mapped = new MappedInventoryMovementStore(mapper, props, new SimpleMeterRegistry(), 256);
+
+        assertEquals(json.list(Optional.empty()), mapped.list(Optional.empty()));
+        assertEquals(Map.of("lana", 1L, "fique", 1L), mapped.countByMaterial());
+        assertFalse(Files.exists(staging));
+    }
+
+    private static KombaosProperties props(Path dir) {
+        KombaosProperties props = new KombaosProperties();
+        props.setEnvironment("local");
+        props.setLocalStorageDir(dir.toString());
+        props.setLocalLedgerEngine("mapped");
+        return props;
+    }
+}
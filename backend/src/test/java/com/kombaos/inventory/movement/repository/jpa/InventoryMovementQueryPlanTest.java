@@ -0,0 +1,80 @@
+package com.kombaos.inventory.movement.repository.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Plans of the hot ledger queries on the migrated schema (H2 in PostgreSQL mode). The native queries
+ * are read from {@link InventoryMovementJpaRepository}, so a changed query is checked as it ships.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "kombaos.environment=cloud")
+@ActiveProfiles("test")
+class InventoryMovementQueryPlanTest {
+
+    private static final String MATERIAL_INDEX = "IDX_INVENTORY_MOVEMENTS_MATERIAL_CREATED_AT_ID";
+    private static final String TOTALS_INDEX = "IDX_INVENTORY_MOVEMENTS_CREATED_AT_TOTALS";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void materialHistorySeeksTheMaterialIndex() {
+        assertThat(plan("select * from inventory_movements where material_id = :materialId order by created_at, id"))
+                .contains("/* PUBLIC." + MATERIAL_INDEX + ": MATERIAL_ID = ")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void balanceSumsSeekTheMaterialIndex() {
+        assertThat(plan(nativeQuery("sumUpTo", 2)))
+                .contains("/* PUBLIC." + MATERIAL_INDEX + ": ")
+                .contains("CREATED_AT <= ")
+                .doesNotContain("tableScan");
+        assertThat(plan(nativeQuery("sumBetween", 3)))
+                .contains("/* PUBLIC." + MATERIAL_INDEX + ": ")
+                .contains("CREATED_AT > ")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void ledgerBalancesSeekTheMaterialIndex() {
+        assertThat(plan(nativeQuery("ledgerBalances", 1)))
+                .contains("/* PUBLIC." + MATERIAL_INDEX + ": MATERIAL_ID IN(")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    void periodTotalsSeekARangeIndex() {
+        assertThat(plan(nativeQuery("totalsBetween", 2)))
+                .contains("/* PUBLIC." + TOTALS_INDEX + ": CREATED_AT >= ")
+                .doesNotContain("tableScan");
+        assertThat(plan(nativeQuery("totalsBetween", 3)))
+                .contains("/* PUBLIC." + MATERIAL_INDEX + ": ")
+                .doesNotContain("tableScan");
+    }
+
+    private String plan(String sql) {
+        String bound = sql
+                .replace(":materialIds", "'plan-material', 'other-material'")
+                .replace(":materialId", "'plan-material'")
+                .replaceAll(":\\w+", "timestamp '2024-01-01 00:00:00'");
+        return String.join("\n", jdbcTemplate.queryForList("explain " + bound, String.class));
+    }
+
+    private static String nativeQuery(String name, int parameters) {
+        Method method = Arrays.stream(InventoryMovementJpaRepository.class.getMethods())
+                .filter(m -> m.getName().equals(name) && m.getParameterCount() == parameters)
+                .findFirst()
+                .orElseThrow();
+        return method.getAnnotation(Query.class).value();
+    }
+}
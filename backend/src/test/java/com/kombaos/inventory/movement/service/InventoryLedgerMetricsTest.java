@@ -0,0 +1,43 @@
+package com.kombaos.inventory.movement.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.kombaos.config.KombaosProperties;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.repository.file.FileInventoryMovementStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InventoryLedgerMetricsTest {
+
+    @Test
+    void exportsAggregatesAndKeepsPerMaterialSeriesOptIn(@TempDir Path tempDir) {
+        KombaosProperties properties = new KombaosProperties();
+        properties.setEnvironment("local");
+        properties.setLocalStorageDir(tempDir.toString());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FileInventoryMovementStore store = new FileInventoryMovementStore(new ObjectMapper().registerModule(new JavaTimeModule()), properties, registry);
+        store.create("m-1", InventoryMovementType.IN, BigDecimal.TEN, null);
+        store.create("m-1", InventoryMovementType.OUT, BigDecimal.ONE, null);
+        store.create("m-2", InventoryMovementType.IN, BigDecimal.ONE, null);
+
+        new InventoryLedgerMetrics(store, registry, properties).refresh();
+
+        assertThat(registry.get("kombaos.inventory.ledger.movements").gauge().value()).isEqualTo(3);
+        assertThat(registry.get("kombaos.inventory.ledger.materials").gauge().value()).isEqualTo(2);
+        assertThat(registry.get("kombaos.inventory.ledger.max").gauge().value()).isEqualTo(2);
+        assertThat(registry.find("kombaos.inventory.ledger.size").gauges()).isEmpty();
+
+        SimpleMeterRegistry optedIn = new SimpleMeterRegistry();
+        properties.setLedgerMetricsPerMaterial(true);
+        new InventoryLedgerMetrics(store, optedIn, properties).refresh();
+
+        assertThat(optedIn.get("kombaos.inventory.ledger.size").tag("material", "m-1").gauge().value()).isEqualTo(2);
+        assertThat(optedIn.find("kombaos.inventory.ledger.size").gauges()).hasSize(2);
+    }
+}
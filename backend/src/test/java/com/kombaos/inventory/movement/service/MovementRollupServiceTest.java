@@ -0,0 +1,44 @@
+package com.kombaos.inventory.movement.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.movement.domain.RollupGranularity;
+import com.kombaos.inventory.movement.service.MovementRollupService.Segment;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class MovementRollupServiceTest {
+
+    @Test
+    void plansCoarsestBucketsAndLedgerEdges() {
+        // 2026-01-07 is a Wednesday; 2026-03-18 is a Wednesday too.
+        List<Segment> plan = MovementRollupService.plan(
+                Instant.parse("2026-01-07T10:00:00Z"),
+                Instant.parse("2026-03-18T06:30:00Z")
+        );
+
+        assertThat(plan).containsExactly(
+                segment(null, "2026-01-07T10:00:00Z", "2026-01-08T00:00:00Z"),
+                segment(RollupGranularity.DAY, "2026-01-08T00:00:00Z", "2026-01-12T00:00:00Z"),
+                segment(RollupGranularity.WEEK, "2026-01-12T00:00:00Z", "2026-01-26T00:00:00Z"),
+                segment(RollupGranularity.DAY, "2026-01-26T00:00:00Z", "2026-02-01T00:00:00Z"),
+                segment(RollupGranularity.MONTH, "2026-02-01T00:00:00Z", "2026-03-01T00:00:00Z"),
+                segment(RollupGranularity.DAY, "2026-03-01T00:00:00Z", "2026-03-02T00:00:00Z"),
+                segment(RollupGranularity.WEEK, "2026-03-02T00:00:00Z", "2026-03-16T00:00:00Z"),
+                segment(RollupGranularity.DAY, "2026-03-16T00:00:00Z", "2026-03-18T00:00:00Z"),
+                segment(null, "2026-03-18T00:00:00Z", "2026-03-18T06:30:00Z")
+        );
+    }
+
+    @Test
+    void readsShortRangesFromTheLedger() {
+        assertThat(MovementRollupService.plan(Instant.parse("2026-01-07T10:00:00Z"), Instant.parse("2026-01-08T09:00:00Z")))
+                .containsExactly(segment(null, "2026-01-07T10:00:00Z", "2026-01-08T09:00:00Z"));
+    }
+
+    private static Segment segment(RollupGranularity granularity, String from, String to) {
+        return new Segment(Optional.ofNullable(granularity), Instant.parse(from), Instant.parse(to));
+    }
+}
@@ -0,0 +1,155 @@
+package com.kombaos.inventory.threshold.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.threshold.domain.MaterialStockThreshold;
+import com.kombaos.inventory.threshold.repository.MaterialStockThresholdStore;
+import com.kombaos.inventory.threshold.service.InventoryAlertService;
+import com.kombaos.inventory.threshold.service.InventoryAlertService.LowStockAlert;
+import com.kombaos.inventory.threshold.service.InventoryAlertService.LowStockAlertChange;
+import com.kombaos.inventory.threshold.service.InventoryAlertService.Transition;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class LowStockAlertStreamTest {
+
+    @Test
+    void stalledSubscriberDoesNotHoldUpTheOthers() throws Exception {
+        LowStockAlertStream stream = new LowStockAlertStream(alertService(List::of));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        RecordingEmitter live = new RecordingEmitter(null);
+        try {
+            stream.subscribe(stalled);
+            stream.subscribe(live);
+            stream.onChange(raised("m-1"));
+
+            assertThat(live.next()).startsWith("event:snapshot");
+            assertThat(live.next()).startsWith("event:raised");
+        } finally {
+            release.countDown();
+            stream.close();
+        }
+    }
+
+    @Test
+    void subscriberFallingTooFarBehindIsDropped() {
+        LowStockAlertStream stream = new LowStockAlertStream(alertService(List::of));
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(release);
+        try {
+            stream.subscribe(stalled);
+            for (int i = 0; i <= LowStockAlertStream.MAX_PENDING; i++) {
+                stream.onChange(raised("m-" + i));
+            }
+
+            assertThat(stalled.failures.poll()).isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+            stream.close();
+        }
+    }
+
+    @Test
+    void failedSnapshotCompletesAndDropsTheSubscriber() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        LowStockAlertStream stream = new LowStockAlertStream(alertService(() -> {
+            // The first read loads the alert set on subscribe; the snapshot read after it fails.
+            if (reads.getAndIncrement() > 0) {
+                throw new IllegalStateException("store down");
+            }
+            return List.of();
+        }));
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        try {
+            stream.subscribe(emitter);
+            assertThat(emitter.failures.poll(5, TimeUnit.SECONDS)).hasMessage("store down");
+
+            stream.onChange(raised("m-1"));
+            assertThat(emitter.events.poll(200, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static LowStockAlertChange raised(String materialId) {
+        return new LowStockAlertChange(
+                Transition.RAISED,
+                new LowStockAlert(materialId, "Lana", "kg", BigDecimal.ONE, BigDecimal.TEN)
+        );
+    }
+
+    // With no thresholds the service never reaches the material or movement services.
+    private static InventoryAlertService alertService(Supplier<List<MaterialStockThreshold>> thresholds) {
+        MaterialStockThresholdStore store = new MaterialStockThresholdStore() {
+            @Override
+            public List<MaterialStockThreshold> list() {
+                return thresholds.get();
+            }
+
+            @Override
+            public Optional<MaterialStockThreshold> getByMaterialId(String materialId) {
+                return Optional.empty();
+            }
+
+            @Override
+            public MaterialStockThreshold upsert(String materialId, BigDecimal minStock) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void delete(String materialId) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return new InventoryAlertService(null, null, store, event -> {
+        });
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        final BlockingQueue<Throwable> failures = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            events.add(builder.build().iterator().next().getData().toString());
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failures.add(ex);
+            super.completeWithError(ex);
+        }
+
+        String next() throws InterruptedException {
+            String event = events.poll(5, TimeUnit.SECONDS);
+            assertThat(event).isNotNull();
+            return event;
+        }
+    }
+}
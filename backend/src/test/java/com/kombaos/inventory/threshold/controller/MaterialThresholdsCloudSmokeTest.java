@@ -0,0 +1,119 @@
+package com.kombaos.inventory.threshold.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.material.dto.MaterialCreateRequest;
+import com.kombaos.inventory.material.dto.MaterialResponse;
+import com.kombaos.inventory.movement.domain.InventoryMovementType;
+import com.kombaos.inventory.movement.dto.InventoryMovementCreateRequest;
+import com.kombaos.inventory.movement.dto.InventoryMovementResponse;
+import com.kombaos.inventory.threshold.dto.LowStockAlertResponse;
+import com.kombaos.inventory.threshold.dto.MaterialStockThresholdUpsertRequest;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(
+        webEnvironment = WebEnvironment.RANDOM_PORT,
+        properties = {
+                "kombaos.environment=cloud",
+                "spring.jpa.properties.hibernate.generate_statistics=true"
+        }
+)
+@ActiveProfiles("test")
+class MaterialThresholdsCloudSmokeTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void lowStockAlertsUseOneQueryPerStoreWhateverTheThresholdCount() throws InterruptedException {
+        List<String> materialIds = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            materialIds.add(materialBelowThreshold("Hilo " + i));
+        }
+        long fewThresholds = statementsFor(this::lowStockMaterialIds);
+
+        for (int i = 2; i < 8; i++) {
+            materialIds.add(materialBelowThreshold("Hilo " + i));
+        }
+        long manyThresholds = statementsFor(this::lowStockMaterialIds);
+
+        assertThat(lowStockMaterialIds()).containsAll(materialIds);
+        // Thresholds, then the materials and the balances they name, each in one batched lookup.
+        assertThat(manyThresholds).isEqualTo(fewThresholds).isEqualTo(3);
+    }
+
+    @Test
+    void thresholdOfDeletedMaterialIsSkipped() {
+        String kept = materialBelowThreshold("Cabuya");
+        String deleted = materialBelowThreshold("Mimbre");
+        restTemplate.delete("/api/materials/" + deleted);
+
+        List<String> alerted = lowStockMaterialIds();
+
+        assertThat(alerted).contains(kept).doesNotContain(deleted);
+    }
+
+    private String materialBelowThreshold(String name) {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest(name, "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        restTemplate.put("/api/materials/" + materialId + "/threshold", new MaterialStockThresholdUpsertRequest(new BigDecimal("10")));
+        ResponseEntity<InventoryMovementResponse> move = restTemplate.postForEntity(
+                "/api/inventory/movements",
+                new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new BigDecimal("2"), "Ingreso"),
+                InventoryMovementResponse.class
+        );
+        assertThat(move.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        return materialId;
+    }
+
+    private List<String> lowStockMaterialIds() {
+        ResponseEntity<LowStockAlertResponse[]> alerts = restTemplate.getForEntity(
+                "/api/inventory/alerts/low-stock",
+                LowStockAlertResponse[].class
+        );
+        assertThat(alerts.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return Arrays.stream(alerts.getBody()).map(LowStockAlertResponse::materialId).toList();
+    }
+
+    private long statementsFor(Runnable request) throws InterruptedException {
+        Statistics statistics = statistics();
+        awaitQuiet(statistics);
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Alert rechecks run after the writes on their own thread and share the global statistics.
+    private static void awaitQuiet(Statistics statistics) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        do {
+            statistics.clear();
+            Thread.sleep(200);
+        } while (statistics.getPrepareStatementCount() > 0 && System.nanoTime() < deadline);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
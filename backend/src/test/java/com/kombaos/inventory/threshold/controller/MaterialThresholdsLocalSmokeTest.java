@@ -11,8 +11,15 @@ import com.kombaos.inventory.threshold.dto.LowStockAlertResponse;
 import com.kombaos.inventory.threshold.dto.MaterialStockThresholdResponse;
 import com.kombaos.inventory.threshold.dto.MaterialStockThresholdUpsertRequest;
 import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -96,4 +103,84 @@ class MaterialThresholdsLocalSmokeTest {
         assertThat(alertsAfter.getBody()).isNotNull();
         assertThat(java.util.Arrays.stream(alertsAfter.getBody()).anyMatch(a -> a.materialId().equals(materialId))).isFalse();
     }
+
+    @Test
+    void lowStockAlertsFollowChangesThatPublishNoEvent() {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Anilina", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+        restTemplate.put(
+                "/api/materials/" + materialId + "/threshold",
+                new MaterialStockThresholdUpsertRequest(new java.math.BigDecimal("10"))
+        );
+        assertThat(lowStockMaterialIds()).contains(materialId);
+
+        // Deleting a material publishes no stock or threshold event; the alert must still go away.
+        restTemplate.delete("/api/materials/" + materialId);
+        assertThat(lowStockMaterialIds()).doesNotContain(materialId);
+    }
+
+    private java.util.List<String> lowStockMaterialIds() {
+        ResponseEntity<LowStockAlertResponse[]> alerts = restTemplate.getForEntity(
+                "/api/inventory/alerts/low-stock",
+                LowStockAlertResponse[].class
+        );
+        assertThat(alerts.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return java.util.Arrays.stream(alerts.getBody()).map(LowStockAlertResponse::materialId).toList();
+    }
+
+    @Test
+    void streamsLowStockTransitions() throws Exception {
+        String materialId = restTemplate.postForEntity(
+                "/api/materials",
+                new MaterialCreateRequest("Índigo", "kg", null, null, null, null, null),
+                MaterialResponse.class
+        ).getBody().id();
+
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        HttpClient client = HttpClient.newHttpClient();
+        try {
+            HttpRequest subscribe = HttpRequest.newBuilder(URI.create(restTemplate.getRootUri() + "/api/inventory/alerts/low-stock/stream"))
+                    .header("Accept", "text/event-stream")
+                    .build();
+            client.sendAsync(subscribe, HttpResponse.BodyHandlers.ofLines())
+                    .thenAccept(response -> Thread.ofVirtual().start(() -> response.body().forEach(lines::add)));
+            awaitEvent(lines, "snapshot", "[");
+
+            restTemplate.put(
+                    "/api/materials/" + materialId + "/threshold",
+                    new MaterialStockThresholdUpsertRequest(new java.math.BigDecimal("10"))
+            );
+            awaitEvent(lines, "raised", materialId);
+
+            restTemplate.postForEntity(
+                    "/api/inventory/movements",
+                    new InventoryMovementCreateRequest(materialId, InventoryMovementType.IN, new java.math.BigDecimal("12"), "Ingreso"),
+                    InventoryMovementResponse.class
+            );
+            awaitEvent(lines, "cleared", materialId);
+        } finally {
+            // close() would wait for the stream to end, which it never does on its own.
+            client.shutdownNow();
+        }
+    }
+
+    private static void awaitEvent(BlockingQueue<String> lines, String name, String dataFragment) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        boolean named = false;
+        while (System.nanoTime() < deadline) {
+            String line = lines.poll(100, TimeUnit.MILLISECONDS);
+            if (line == null) {
+                continue;
+            }
+            if (line.startsWith("event:")) {
+                named = line.substring("event:".length()).trim().equals(name);
+            } else if (named && line.startsWith("data:") && line.contains(dataFragment)) {
+                return;
+            }
+        }
+        throw new AssertionError("No " + name + " event containing " + dataFragment);
+    }
 }
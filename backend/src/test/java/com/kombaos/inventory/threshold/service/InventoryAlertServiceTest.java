@@ -0,0 +1,63 @@
+package com.kombaos.inventory.threshold.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kombaos.inventory.movement.domain.InventoryStockChangedEvent;
+import com.kombaos.inventory.threshold.domain.MaterialStockThreshold;
+import com.kombaos.inventory.threshold.domain.MaterialStockThresholdChangedEvent;
+import com.kombaos.inventory.threshold.repository.MaterialStockThresholdStore;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class InventoryAlertServiceTest {
+
+    @Test
+    void failedRecheckNeitherFailsTheWriterNorStopsLaterRechecks() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch recovered = new CountDownLatch(1);
+        MaterialStockThresholdStore store = new MaterialStockThresholdStore() {
+            @Override
+            public List<MaterialStockThreshold> list() {
+                return List.of();
+            }
+
+            @Override
+            public Optional<MaterialStockThreshold> getByMaterialId(String materialId) {
+                if (lookups.getAndIncrement() == 0) {
+                    throw new IllegalStateException("store down");
+                }
+                recovered.countDown();
+                return Optional.empty();
+            }
+
+            @Override
+            public MaterialStockThreshold upsert(String materialId, BigDecimal minStock) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void delete(String materialId) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        // With no thresholds the service never reaches the material or movement services.
+        InventoryAlertService service = new InventoryAlertService(null, null, store, event -> {
+        });
+        try {
+            service.ensureLoaded();
+
+            service.onStockChanged(new InventoryStockChangedEvent(Set.of("m-1")));
+            service.onThresholdChanged(new MaterialStockThresholdChangedEvent("m-1"));
+
+            assertThat(recovered.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            service.close();
+        }
+    }
+}
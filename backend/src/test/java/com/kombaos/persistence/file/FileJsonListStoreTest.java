@@ -0,0 +1,190 @@
+package com.kombaos.persistence.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileJsonListStoreTest {
+
+    record Item(String id, String value) {
+    }
+
+    record Measure(String id, BigDecimal amount) {
+    }
+
+    private static final TypeReference<List<Item>> TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private FileJsonListStore<Item> open(Path file, int compactionThreshold) {
+        return new FileJsonListStore<>(mapper, file, TYPE, Item::id, new FileStoreOptions(true, compactionThreshold));
+    }
+
+    @Test
+    void appendsMutationsToJournalWithoutRewritingSnapshot(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.json");
+        FileJsonListStore<Item> store = open(file, 100);
+
+        store.put(new Item("a", "1"));
+        byte[] snapshot = Files.readAllBytes(file);
+        store.put(new Item("b", "2"));
+        store.put(new Item("a", "3"));
+        assertTrue(store.remove("b"));
+        assertFalse(store.remove("missing"));
+
+        assertEquals(new String(snapshot, StandardCharsets.UTF_8), Files.readString(file));
+        assertEquals(4, Files.readAllLines(tempDir.resolve("items.json.journal")).size());
+        assertEquals(List.of(new Item("a", "3")), store.readAll());
+    }
+
+    @Test
+    void compactsJournalIntoSnapshotAtThreshold(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.json");
+        FileJsonListStore<Item> store = open(file, 3);
+
+        store.put(new Item("a", "1"));
+        store.put(new Item("b", "2"));
+        store.put(new Item("c", "3"));
+
+        assertFalse(Files.exists(tempDir.resolve("items.json.journal")));
+        List<Item> snapshot = mapper.readValue(file.toFile(), TYPE);
+        assertEquals(3, snapshot.size());
+    }
+
+    @Test
+    void recoversJournalTailAndDropsTornRecord(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.json");
+        FileJsonListStore<Item> store = open(file, 100);
+        store.put(new Item("a", "1"));
+        store.put(new Item("b", "2"));
+        Files.writeString(tempDir.resolve("items.json.journal"), "{\"op\":\"put\",\"item\":{\"id\":\"c\"", StandardOpenOption.APPEND);
+
+        FileJsonListStore<Item> restarted = open(file, 100);
+        restarted.put(new Item("d", "4"));
+
+        assertEquals(List.of(new Item("a", "1"), new Item("b", "2"), new Item("d", "4")), restarted.readAll());
+    }
+
+    @Test
+    void reloadsWhenAnotherProcessRewritesTheFile(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.json");
+        FileJsonListStore<Item> store = open(file, 100);
+        store.put(new Item("a", "1"));
+        assertEquals(1, store.readAll().size());
+
+        FileJsonListStore<Item> other = new FileJsonListStore<>(mapper, file, TYPE, Item::id, new FileStoreOptions(false, 100));
+        other.put(new Item("b", "2"));
+
+        assertEquals(new Item("b", "2"), store.get("b").orElseThrow());
+        assertEquals(2, store.readAll().size());
+    }
+
+    @Test
+    void journalReplayKeepsDecimalPrecision(@TempDir Path tempDir) {
+        Path file = tempDir.resolve("measures.json");
+        TypeReference<List<Measure>> type = new TypeReference<>() {
+        };
+        Measure measure = new Measure("a", new BigDecimal("12345678901.123456789"));
+        new FileJsonListStore<>(mapper, file, type, Measure::id, new FileStoreOptions(true, 100)).put(measure);
+
+        FileJsonListStore<Measure> restarted = new FileJsonListStore<>(mapper, file, type, Measure::id, new FileStoreOptions(true, 100));
+
+        assertEquals(List.of(measure), restarted.readAll());
+    }
+
+    @Test
+    void restartWithoutJournalingFoldsTheLeftoverJournal(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.json");
+        FileJsonListStore<Item> journaled = open(file, 100);
+        journaled.put(new Item("a", "1"));
+        journaled.put(new Item("b", "2"));
+
+        FileJsonListStore<Item> plain = new FileJsonListStore<>(mapper, file, TYPE, Item::id, new FileStoreOptions(false, 100));
+        assertTrue(plain.remove("a"));
+
+        assertFalse(Files.exists(tempDir.resolve("items.json.journal")));
+        assertEquals(List.of(new Item("b", "2")), mapper.readValue(file.toFile(), TYPE));
+        assertEquals(List.of(new Item("b", "2")), open(file, 100).readAll());
+    }
+
+    @Test
+    void contendedAccessFromVirtualThreadsDoesNotPinCarriers(@TempDir Path tempDir) throws Exception {
+        FileJsonListStore<Item> store = open(tempDir.resolve("items.json"), 50);
+        Path events = tempDir.resolve("pinning.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < 200; i++) {
+                    String id = "item-" + (i % 20);
+                    executor.submit(() -> {
+                        store.put(new Item(id, "v"));
+                        return store.get(id);
+                    });
+                }
+            }
+            recording.stop();
+            recording.dump(events);
+        }
+
+        assertEquals(20, store.readAll().size());
+        assertTrue(RecordingFile.readAllEvents(events).isEmpty());
+    }
+
+    @Test
+    void smileJournalRecoversAndDropsTornFrame(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.json");
+        FileStoreOptions smile = new FileStoreOptions(true, 100, FileStoreFormat.SMILE);
+        FileJsonListStore<Item> store = new FileJsonListStore<>(mapper, file, TYPE, Item::id, smile);
+        store.put(new Item("a", "1"));
+        store.put(new Item("b", "2"));
+        Files.write(tempDir.resolve("items.smile.journal"), new byte[] {0, 0, 0, 42, 58, 41}, StandardOpenOption.APPEND);
+
+        FileJsonListStore<Item> restarted = new FileJsonListStore<>(mapper, file, TYPE, Item::id, smile);
+        restarted.put(new Item("c", "3"));
+
+        assertFalse(Files.exists(file));
+        assertEquals(List.of(new Item("a", "1"), new Item("b", "2"), new Item("c", "3")), restarted.readAll());
+    }
+
+    @Test
+    void convertsBetweenFormatsOnFirstAccess(@TempDir Path tempDir) throws IOException {
+        Path file = tempDir.resolve("items.json");
+        FileJsonListStore<Item> json = open(file, 100);
+        json.put(new Item("a", "1"));
+        json.put(new Item("b", "2"));
+        long jsonSize = Files.size(file) + Files.size(tempDir.resolve("items.json.journal"));
+
+        FileStoreOptions smile = new FileStoreOptions(true, 100, FileStoreFormat.SMILE);
+        FileJsonListStore<Item> converted = new FileJsonListStore<>(mapper, file, TYPE, Item::id, smile);
+        assertEquals(List.of(new Item("a", "1"), new Item("b", "2")), converted.readAll());
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(tempDir.resolve("items.json.journal")));
+        assertTrue(Files.size(tempDir.resolve("items.smile")) < jsonSize);
+        converted.remove("a");
+
+        FileJsonListStore<Item> back = open(file, 100);
+        assertEquals(List.of(new Item("b", "2")), back.readAll());
+        assertFalse(Files.exists(tempDir.resolve("items.smile")));
+        assertFalse(Files.exists(tempDir.resolve("items.smile.journal")));
+    }
+}
@@ -0,0 +1,26 @@
+package com.kombaos.persistence.jpa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class IdChunksTest {
+
+    @Test
+    void splitsDistinctIdsIntoBoundedChunks() {
+        List<String> ids = IntStream.range(0, 2 * IdChunks.SIZE + 1).mapToObj(i -> "m-" + i).toList();
+
+        List<List<String>> chunks = IdChunks.of(ids);
+
+        assertThat(chunks).extracting(List::size).containsExactly(IdChunks.SIZE, IdChunks.SIZE, 1);
+        assertThat(chunks.stream().flatMap(List::stream)).containsExactlyElementsOf(ids);
+    }
+
+    @Test
+    void dropsDuplicatesAndEmptyInput() {
+        assertThat(IdChunks.of(List.of("a", "b", "a"))).containsExactly(List.of("a", "b"));
+        assertThat(IdChunks.of(List.of())).isEmpty();
+    }
+}
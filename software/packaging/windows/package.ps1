@@ -69,18 +69,32 @@ New-Item -ItemType Directory -Force -Path $backendStaticDir | Out-Null
 Copy-Item -Recurse -Force (Join-Path $frontendDir "dist\\*") $backendStaticDir
 
 Push-Location $backendDir
-.\mvnw.cmd -DskipTests package
+.\mvnw.cmd -DskipTests -Paot "-Dkombaos.aot.environment=$Environment" package
 $jar = Get-ChildItem -Path (Join-Path $backendDir "target") -Filter "*.jar" | Where-Object { $_.Name -notmatch "original" } | Select-Object -First 1
 if (-not $jar) { throw "No se encontró JAR en backend\\target" }
 
+# Layout extraído (app.jar + lib\) y archivo CDS de un arranque de entrenamiento que termina al refrescar el contexto.
+$appDir = Join-Path $backendDir "target\\app"
+if (Test-Path $appDir) { Remove-Item -Recurse -Force $appDir }
+java -Djarmode=tools -jar $jar.FullName extract --destination $appDir
+if ($LASTEXITCODE -ne 0) { throw "Falló la extracción del JAR" }
+Move-Item (Join-Path $appDir $jar.Name) (Join-Path $appDir "app.jar")
+$trainingDir = Join-Path ([System.IO.Path]::GetTempPath()) ("kombaos_cds_" + [Guid]::NewGuid().ToString("N"))
+java "-XX:ArchiveClassesAtExit=$(Join-Path $appDir 'app.jsa')" -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh -jar (Join-Path $appDir "app.jar") `
+  "--kombaos.environment=$Environment" "--kombaos.local-storage-dir=$trainingDir" "--spring.datasource.url=jdbc:h2:mem:cds" --kombaos.desktop.open=false
+if ($LASTEXITCODE -ne 0) { throw "Falló el arranque de entrenamiento CDS" }
+Remove-Item -Recurse -Force $trainingDir -ErrorAction SilentlyContinue
+
 $jpackageArgs = @(
   "--type", $PackageType,
   "--name", "KombaOS",
   "--app-version", $AppVersion,
-  "--input", (Join-Path $backendDir "target"),
-  "--main-jar", $jar.Name,
+  "--input", $appDir,
+  "--main-jar", "app.jar",
   "--dest", $distDir,
-  "--java-options", "-Dkombaos.environment=$Environment"
+  "--java-options", "-Dkombaos.environment=$Environment",
+  "--java-options", "-Dspring.aot.enabled=true",
+  "--java-options", "-XX:SharedArchiveFile=`$APPDIR\\app.jsa"
 )
 
 if ($PackageType -eq "exe") {
@@ -100,10 +114,12 @@ if ($LASTEXITCODE -ne 0) {
       "--type", $PackageType,
       "--name", "KombaOS",
       "--app-version", $AppVersion,
-      "--input", (Join-Path $backendDir "target"),
-      "--main-jar", $jar.Name,
+      "--input", $appDir,
+      "--main-jar", "app.jar",
       "--dest", $distDir,
-      "--java-options", "-Dkombaos.environment=$Environment"
+      "--java-options", "-Dkombaos.environment=$Environment",
+      "--java-options", "-Dspring.aot.enabled=true",
+      "--java-options", "-XX:SharedArchiveFile=`$APPDIR\\app.jsa"
     )
     if ($iconArgument) {
       $jpackageArgs += @("--icon", $iconArgument)